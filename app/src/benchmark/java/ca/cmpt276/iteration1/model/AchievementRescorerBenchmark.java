@@ -0,0 +1,65 @@
+package ca.cmpt276.iteration1.model;
+
+import static org.junit.Assert.assertArrayEquals;
+
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Times rescoring a million games in parallel chunks against scoring them one after another.
+ * Only run when asked for, see app/build.gradle.
+ */
+public class AchievementRescorerBenchmark {
+    private static final Difficulty[] DIFFICULTIES = Difficulty.values();
+    private static final int GAME_COUNT = 1_000_000;
+    private static final int RUNS = 5;
+
+    private static int[] randomInts(Random random, int gameCount, int from, int to) {
+        int[] values = new int[gameCount];
+        for (int i = 0; i < gameCount; i++) {
+            values[i] = from + random.nextInt(to - from);
+        }
+        return values;
+    }
+
+    private static int[] rescoreSequentially(GameType gameType, int[] totalScores, int[] playerCounts, int[] difficultyOrdinals) {
+        int[] achievementIndices = new int[totalScores.length];
+        for (int game = 0; game < totalScores.length; game++) {
+            achievementIndices[game] = gameType.getAchievementIndex(totalScores[game], playerCounts[game],
+                    DIFFICULTIES[difficultyOrdinals[game]]);
+        }
+        return achievementIndices;
+    }
+
+    @Test
+    public void rescoringAMillionGames() {
+        Random random = new Random(1_000_000);
+        int[] totalScores = randomInts(random, GAME_COUNT, -5_000, 5_000);
+        int[] playerCounts = randomInts(random, GAME_COUNT, 1, 9);
+        int[] difficultyOrdinals = randomInts(random, GAME_COUNT, 0, DIFFICULTIES.length);
+        GameType gameType = new GameType("Synthetic", 250, -50, null);
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+
+        // The fastest of several runs, so the first runs warm up the JIT
+        long sequentialNanos = Long.MAX_VALUE;
+        long parallelNanos = Long.MAX_VALUE;
+        long checksum = 0;
+        for (int run = 0; run < RUNS; run++) {
+            long start = System.nanoTime();
+            int[] sequential = rescoreSequentially(gameType, totalScores, playerCounts, difficultyOrdinals);
+            sequentialNanos = Math.min(sequentialNanos, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            int[] parallel = AchievementRescorer.rescore(gameType, totalScores, playerCounts, difficultyOrdinals, pool, null);
+            parallelNanos = Math.min(parallelNanos, System.nanoTime() - start);
+
+            assertArrayEquals(sequential, parallel);
+            checksum += parallel[run];
+        }
+        System.out.println("Rescoring " + GAME_COUNT + " games on " + pool.getParallelism() + " threads: "
+                + sequentialNanos / 1_000_000 + "ms one after another, " + parallelNanos / 1_000_000
+                + "ms in parallel (checksum " + checksum + ")");
+    }
+}
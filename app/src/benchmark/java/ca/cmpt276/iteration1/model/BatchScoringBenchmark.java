@@ -0,0 +1,63 @@
+package ca.cmpt276.iteration1.model;
+
+import static org.junit.Assert.assertArrayEquals;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+/**
+ * Times scoring a million games in a batch against scoring them one at a time through
+ * getAchievementIndex. Only run when asked for, see app/build.gradle.
+ */
+public class BatchScoringBenchmark {
+    private static final Difficulty[] DIFFICULTIES = Difficulty.values();
+    private static final int GAME_COUNT = 1_000_000;
+    private static final int RUNS = 5;
+
+    private static int[] randomInts(Random random, int gameCount, int from, int to) {
+        int[] values = new int[gameCount];
+        for (int i = 0; i < gameCount; i++) {
+            values[i] = from + random.nextInt(to - from);
+        }
+        return values;
+    }
+
+    private static int[] scoreEachGame(GameType gameType, int[] totalScores, int[] playerCounts, int[] difficultyOrdinals) {
+        int[] achievementIndices = new int[totalScores.length];
+        for (int game = 0; game < totalScores.length; game++) {
+            achievementIndices[game] = gameType.getAchievementIndex(totalScores[game], playerCounts[game],
+                    DIFFICULTIES[difficultyOrdinals[game]]);
+        }
+        return achievementIndices;
+    }
+
+    @Test
+    public void scoringAMillionGamesInABatch() {
+        Random random = new Random(1_000_000);
+        int[] totalScores = randomInts(random, GAME_COUNT, -5_000, 5_000);
+        int[] playerCounts = randomInts(random, GAME_COUNT, 1, 9);
+        int[] difficultyOrdinals = randomInts(random, GAME_COUNT, 0, DIFFICULTIES.length);
+        GameType gameType = new GameType("Synthetic", 250, -50, null);
+        int[] achievementIndices = new int[GAME_COUNT];
+
+        // The fastest of several runs, so the first runs warm up the JIT
+        long eachGameNanos = Long.MAX_VALUE;
+        long batchNanos = Long.MAX_VALUE;
+        long checksum = 0;
+        for (int run = 0; run < RUNS; run++) {
+            long start = System.nanoTime();
+            int[] expected = scoreEachGame(gameType, totalScores, playerCounts, difficultyOrdinals);
+            eachGameNanos = Math.min(eachGameNanos, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            gameType.getAchievementIndices(totalScores, playerCounts, difficultyOrdinals, achievementIndices, 0, GAME_COUNT);
+            batchNanos = Math.min(batchNanos, System.nanoTime() - start);
+
+            assertArrayEquals(expected, achievementIndices);
+            checksum += achievementIndices[run];
+        }
+        System.out.println("Scoring " + GAME_COUNT + " games: " + eachGameNanos / 1_000_000 + "ms one at a time, "
+                + batchNanos / 1_000_000 + "ms in a batch (checksum " + checksum + ")");
+    }
+}
@@ -0,0 +1,69 @@
+package ca.cmpt276.iteration1.model;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Random;
+
+/**
+ * Times counting achievements from the GameManager's columns against counting them from the
+ * played games on a large history. Only run when asked for, see app/build.gradle.
+ */
+public class PlayedGameColumnsBenchmark {
+    private static final int CATAN = 1;
+    private static final int ACHIEVEMENT_COUNT = 8;
+    private static final Difficulty[] DIFFICULTIES = Difficulty.values();
+
+    @Test
+    public void countingFromColumnsAndFromGames() {
+        GameManager gameManager = GameManager.getInstance();
+        gameManager.loadGameTypeList(new ArrayList<>());
+        final int GAME_COUNT = 500_000;
+        final int ROUNDS = 20;
+        Random random = new Random(1);
+        ArrayList<PlayedGame> playedGames = new ArrayList<>(GAME_COUNT);
+        for (int i = 0; i < GAME_COUNT; i++) {
+            int[] playerScores = new int[1 + random.nextInt(6)];
+            for (int player = 0; player < playerScores.length; player++) {
+                playerScores[player] = random.nextInt(200);
+            }
+            playedGames.add(new PlayedGame(1 + random.nextInt(5), playerScores.length, 0, random.nextInt(ACHIEVEMENT_COUNT),
+                    DIFFICULTIES[random.nextInt(DIFFICULTIES.length)], playerScores,
+                    LocalDateTime.of(2022, 1, 1, 0, 0).plusSeconds(random.nextInt(30_000_000)), "No", null));
+        }
+        // Shuffled like a history built up over time, so the games are spread around the heap
+        Collections.shuffle(playedGames, random);
+        gameManager.loadGamePlayedList(playedGames);
+        PlayedGameColumns columns = gameManager.getPlayedGameColumnsSnapshot();
+
+        long gamesNanos = Long.MAX_VALUE;
+        long columnsNanos = Long.MAX_VALUE;
+        int checksum = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            int[] fromGames = new int[ACHIEVEMENT_COUNT];
+            for (PlayedGame playedGame : playedGames) {
+                if (playedGame.getTypeId() == CATAN) {
+                    fromGames[playedGame.getAchievementIndex()]++;
+                }
+            }
+            gamesNanos = Math.min(gamesNanos, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            int[] fromColumns = columns.countAchievements(CATAN, ACHIEVEMENT_COUNT);
+            columnsNanos = Math.min(columnsNanos, System.nanoTime() - start);
+
+            assertArrayEquals(fromGames, fromColumns);
+            checksum += fromColumns[0];
+        }
+
+        System.out.println("Counting achievements over " + GAME_COUNT + " games: " + gamesNanos / 1_000 + "us from games, "
+                + columnsNanos / 1_000 + "us from columns (checksum " + checksum + ")");
+        assertEquals(GAME_COUNT, columns.size());
+    }
+}
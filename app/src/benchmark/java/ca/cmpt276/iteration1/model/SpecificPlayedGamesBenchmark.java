@@ -0,0 +1,54 @@
+package ca.cmpt276.iteration1.model;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+
+/**
+ * Times getSpecificPlayedGames with a small and a large history, to show its cost per call stays
+ * flat as the history grows. Only run when asked for, see app/build.gradle.
+ */
+public class SpecificPlayedGamesBenchmark {
+    private static final int SMALL_HISTORY = 1_000;
+    private static final int LARGE_HISTORY = 200_000;
+    private static final int TIMED_CALLS = 200_000;
+    private static final int TYPE_COUNT = 10;
+
+    @Test
+    public void specificPlayedGamesCostDoesNotGrowWithHistory() {
+        long smallNanos = measureSpecificPlayedGames(SMALL_HISTORY);
+        long largeNanos = measureSpecificPlayedGames(LARGE_HISTORY);
+
+        System.out.println("getSpecificPlayedGames with " + SMALL_HISTORY + " games: " + smallNanos / TIMED_CALLS + " ns/call");
+        System.out.println("getSpecificPlayedGames with " + LARGE_HISTORY + " games: " + largeNanos / TIMED_CALLS + " ns/call");
+    }
+
+    // Returns the total time of the calls, after a history of the given size was loaded across the game types
+    private static long measureSpecificPlayedGames(int historySize) {
+        GameManager gameManager = GameManager.getInstance();
+        gameManager.loadGameTypeList(new ArrayList<>());
+        ArrayList<PlayedGame> history = new ArrayList<>(historySize);
+        for (int i = 0; i < historySize; i++) {
+            history.add(new PlayedGame(1 + i % TYPE_COUNT, 1, i, 3, Difficulty.NORMAL, new int[]{i},
+                    LocalDateTime.of(2022, 11, 20, 18, 30), "No", null));
+        }
+        gameManager.loadGamePlayedList(history);
+
+        // Warm up before timing
+        long gameCount = 0;
+        for (int i = 0; i < TIMED_CALLS; i++) {
+            gameCount += gameManager.getSpecificPlayedGames(1 + i % TYPE_COUNT).size();
+        }
+        long startTime = System.nanoTime();
+        for (int i = 0; i < TIMED_CALLS; i++) {
+            gameCount += gameManager.getSpecificPlayedGames(1 + i % TYPE_COUNT).size();
+        }
+        long elapsedTime = System.nanoTime() - startTime;
+
+        assertEquals(2L * TIMED_CALLS * (historySize / TYPE_COUNT), gameCount);
+        return elapsedTime;
+    }
+}
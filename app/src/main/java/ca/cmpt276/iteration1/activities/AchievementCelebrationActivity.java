@@ -23,28 +23,26 @@ import android.widget.ImageView;
 import android.widget.Spinner;
 import android.widget.TextView;
 
-import java.util.ArrayList;
 
 import ca.cmpt276.iteration1.R;
+import ca.cmpt276.iteration1.model.Difficulty;
 import ca.cmpt276.iteration1.model.GameManager;
 import ca.cmpt276.iteration1.model.GameType;
 import ca.cmpt276.iteration1.model.PlayedGame;
 
 public class AchievementCelebrationActivity extends AppCompatActivity {
 
-    private static final String GAME_PLAYED_INDEX_TAG = "GamePlayedIndex";
-    private static final String GAME_PLAYED_TYPE_TAG = "GameType";
-    private final int INVALID_GAME_PLAYED_INDEX = -1;
+    private static final String PLAYED_GAME_ID_TAG = "PlayedGameId";
+    private final int INVALID_PLAYED_GAME_ID = 0;
 
     private GameManager gameManager;
-    private int gamePlayedIndex;
-    private String gameTypeString;
+    private int playedGameId;
     private GameType gameType;
 
     private PlayedGame playedGame;
     private int playerCount;
     private int gameScore;
-    private String difficulty;
+    private Difficulty difficulty;
     private String currentLevelName;
     private String nextLevelName;
     private int pointsToNextLevel;
@@ -53,17 +51,15 @@ public class AchievementCelebrationActivity extends AppCompatActivity {
     private TextView tvNextLevelName;
     private ImageView ivGameSelfie;
 
-    public static Intent makeIntent(Context context, String gameType, int gamePlayedIndex){
+    public static Intent makeIntent(Context context, int playedGameId){
         Intent intent = new Intent(context, AchievementCelebrationActivity.class);
-        intent.putExtra(GAME_PLAYED_INDEX_TAG, gamePlayedIndex);
-        intent.putExtra(GAME_PLAYED_TYPE_TAG, gameType);
+        intent.putExtra(PLAYED_GAME_ID_TAG, playedGameId);
         return intent;
     }
 
     private void extractIntentExtras(){
         Intent intent = getIntent();
-        gamePlayedIndex = intent.getIntExtra(GAME_PLAYED_INDEX_TAG, INVALID_GAME_PLAYED_INDEX);
-        gameTypeString = intent.getStringExtra(GAME_PLAYED_TYPE_TAG);
+        playedGameId = intent.getIntExtra(PLAYED_GAME_ID_TAG, INVALID_PLAYED_GAME_ID);
     }
 
     @Override
@@ -73,7 +69,11 @@ public class AchievementCelebrationActivity extends AppCompatActivity {
 
 
         extractIntentExtras();
-        getGameInfo();
+        if (!getGameInfo()){
+            // The game was deleted, or the app was restarted on this screen before the games were loaded
+            finish();
+            return;
+        }
         setGameInfo();
         setPlayAnimationButton();
         setSelectThemeSpinner();
@@ -97,10 +97,17 @@ public class AchievementCelebrationActivity extends AppCompatActivity {
         return true;
     }
 
-    private void getGameInfo(){
+    // Returns false when the game or its game type is not loaded
+    private boolean getGameInfo(){
         gameManager = GameManager.getInstance();
-        playedGame = gameManager.getSpecificPlayedGames(gameTypeString).get(gamePlayedIndex);
-        gameType = gameManager.getGameTypeFromString(gameTypeString);
+        playedGame = gameManager.getPlayedGameFromId(playedGameId);
+        if (playedGame == null){
+            return false;
+        }
+        gameType = gameManager.getGameTypeFromId(playedGame.getTypeId());
+        if (gameType == null){
+            return false;
+        }
 
         playerCount = playedGame.getNumberOfPlayers();
         gameScore = playedGame.getTotalScore();
@@ -108,29 +115,18 @@ public class AchievementCelebrationActivity extends AppCompatActivity {
         difficulty = playedGame.getDifficulty();
         currentLevelName = playedGame.getAchievement();
 
-        ArrayList<String> achievementLevelScoreRequirements = gameType.getAchievementLevelScoreRequirements(playerCount, difficulty);
-        int nextLevelScore = 0;
-        // Iterate through each achievement level, use regex to grab numerical values
-        for (String achievementLevelScore : achievementLevelScoreRequirements){
-            // With the numerical value, if it is greater than the current game score, it is the score of the next level
-            int achievementScore = Integer.parseInt(achievementLevelScore.replaceAll("[^0-9]", ""));
-            if (achievementScore > gameScore){
-                nextLevelScore = achievementScore;
-                break;
-            }
-        }
-
-        // If nextLevelScore == 0, gameScore is on the dot of max level
-        if (nextLevelScore != 0){
+        // Looked up in the game type's threshold table
+        int nextLevelScore = gameType.getNextAchievementThreshold(gameScore, playerCount, difficulty);
+        if (nextLevelScore != GameType.NO_NEXT_LEVEL){
             pointsToNextLevel = nextLevelScore - gameScore;
             nextLevelName = gameType.getAchievementLevel(nextLevelScore, playerCount, difficulty);
         }
         else {
+            // Already at the max level
             pointsToNextLevel = 0;
-            // + 1 to get max level name (as we are on the dot of it, but max level must be greater than
-            nextLevelName = gameType.getAchievementLevel(gameScore + 1, playerCount, difficulty);
+            nextLevelName = gameType.getAchievementLevel(gameScore, playerCount, difficulty);
         }
-
+        return true;
     }
 
     private void setGameInfo(){
@@ -18,6 +18,7 @@ import android.content.res.Resources;
 import android.graphics.Bitmap;
 import android.graphics.BitmapFactory;
 import android.os.Bundle;
+import android.util.Log;
 import android.view.Menu;
 import android.view.MenuInflater;
 import android.view.MenuItem;
@@ -28,15 +29,22 @@ import android.widget.ArrayAdapter;
 import android.widget.ImageView;
 import android.widget.ListView;
 import android.widget.TextView;
+import android.widget.Toast;
 
 import com.google.android.material.floatingactionbutton.FloatingActionButton;
 import com.google.gson.Gson;
 import com.google.gson.reflect.TypeToken;
+
+import java.io.IOException;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
+import java.util.List;
 import ca.cmpt276.iteration1.R;
 import ca.cmpt276.iteration1.model.GameManager;
 import ca.cmpt276.iteration1.model.GameType;
+import ca.cmpt276.iteration1.persistence.GameRepository;
+import ca.cmpt276.iteration1.persistence.PersistenceWorker;
+import ca.cmpt276.iteration1.persistence.SqliteGameRepository;
 
 
 /**
@@ -44,6 +52,7 @@ import ca.cmpt276.iteration1.model.GameType;
  * Has a FAB which lets the user launch into an activity for creating a new game configuration.
  */
 public class GameListActivity extends AppCompatActivity {
+    private static final String GAME_TYPES_SAVE_KEY = "Game Types";
 
     private GameManager gm;
 
@@ -56,8 +65,11 @@ public class GameListActivity extends AppCompatActivity {
         setContentView(R.layout.activity_game_list);
 
         gm = GameManager.getInstance();
+        gm.setGameTypeListener(SqliteGameRepository.getInstance(this));
 
-        loadGameTypeList();
+        if (!gm.isGameTypesLoaded()){
+            loadGameTypeList();
+        }
         setUpFab();
         populateListView();
         ListView lv = findViewById(R.id.lv_gameTypeList);
@@ -68,7 +80,7 @@ public class GameListActivity extends AppCompatActivity {
         lv.setOnItemClickListener(new AdapterView.OnItemClickListener() {
             @Override
             public void onItemClick(AdapterView<?> parent, View view, int position, long id) {
-                Intent intent = GamePlayedListActivity.makeIntent(GameListActivity.this, position);
+                Intent intent = GamePlayedListActivity.makeIntent(GameListActivity.this, gm.getGameTypeAtIndex(position).getId());
                 startActivity(intent);
             }
         });
@@ -78,7 +90,7 @@ public class GameListActivity extends AppCompatActivity {
         lv.setOnItemLongClickListener(new AdapterView.OnItemLongClickListener() {
             @Override
             public boolean onItemLongClick(AdapterView<?> adapterView, View view, int position, long id) {
-                Intent intent = GameTypeActivity.makeIntent(GameListActivity.this, gm.getGameTypes().get(position).getGameType());
+                Intent intent = GameTypeActivity.makeIntent(GameListActivity.this, gm.getGameTypeAtIndex(position).getId());
                 startActivity(intent);
 
                 return true;
@@ -114,7 +126,7 @@ public class GameListActivity extends AppCompatActivity {
         int achievementThemeIndex = sharedPreferences.getInt(ACHIEVEMENT_THEME_INDEX, 0);
 
         // Apply the theme
-        GameManager.getInstance().setGameTheme(achievementThemeIndex);
+        GameManager.getInstance().loadGameTheme(achievementThemeIndex);
     }
 
     // Create the options menu button
@@ -130,23 +142,38 @@ public class GameListActivity extends AppCompatActivity {
     @Override
     public void onBackPressed(){
         saveGameTypeList();
+        PendingSaves.flush("GameListActivity");
         finishAffinity();
     }
 
+    // The process can be killed any time after the app leaves the screen, so finish the queued saves first
+    @Override
+    protected void onStop() {
+        PendingSaves.flush("GameListActivity");
+        super.onStop();
+    }
+
     // When the activity is resumed, save any changes to the game types list
     @Override
     public void onResume() {
         saveGameTypeList();
         populateListView();
+        updateEmptyState();
+        super.onResume();
+    }
+
+    private void updateEmptyState() {
         TextView emptyState = findViewById(R.id.tvGameListEmptyState);
+        if (!gm.isGameTypesLoaded()) {
+            emptyState.setText(R.string.loading_game_types);
+        }
         // No games types are added in yet
-        if (gm.getGameTypes().isEmpty()) {
+        else if (gm.getGameTypes().isEmpty()) {
             emptyState.setText(R.string.empty_game_state_type);
         } else {
             // instructions when game list is not empty
             emptyState.setText(R.string.open_edit_game_instruction);
         }
-        super.onResume();
     }
 
     private void setUpFab() {
@@ -154,6 +181,10 @@ public class GameListActivity extends AppCompatActivity {
         fab.setOnClickListener(new View.OnClickListener() {
             @Override
             public void onClick(View v) {
+                if (!gm.isGameTypesLoaded()) {
+                    Toast.makeText(GameListActivity.this, R.string.loading_game_types, Toast.LENGTH_SHORT).show();
+                    return;
+                }
                 Intent intent = GameTypeActivity.makeIntent(GameListActivity.this);
                 startActivity(intent);
             }
@@ -225,34 +256,75 @@ public class GameListActivity extends AppCompatActivity {
         }
     }
 
-    // Save Game type list
+    // Save Game type list on the persistence worker
     private void saveGameTypeList(){
-        SharedPreferences sharedPreferences = getSharedPreferences("Game Type Preferences", MODE_PRIVATE);
-        SharedPreferences.Editor editor = sharedPreferences.edit();
-        Gson gson = new Gson();
-
-        String json = gson.toJson(gm.getGameTypes());
-
-        editor.putString("Game Type List", json);
-        editor.apply();
+        // Saving before the saved list is loaded would write over it
+        if (!gm.isGameTypesLoaded()){
+            return;
+        }
+        GameRepository repository = SqliteGameRepository.getInstance(this);
+        // The worker writes a snapshot, the game types themselves keep being changed on this thread
+        List<GameType> gameTypes = gm.getGameTypesSnapshot();
+        long version = gm.getGameTypesVersion();
+
+        // Coming back from a screen that changed nothing does not rewrite the list
+        PersistenceWorker.getInstance().submit(GAME_TYPES_SAVE_KEY,
+                () -> repository.saveGameTypesIfChanged(gameTypes, version));
     }
 
-    // Load Game type list
+    // Load Game type list on the persistence worker, after any saves still waiting to be written
     private void loadGameTypeList() {
-        gm = GameManager.getInstance();
+        SqliteGameRepository repository = SqliteGameRepository.getInstance(this);
+        SharedPreferences legacyPreferences = getSharedPreferences("Game Type Preferences", MODE_PRIVATE);
+        MainThreadCallback<LoadedGameTypes> loaded = new MainThreadCallback<>(this, loadedGameTypes -> {
+            // New ids must not reuse those of deleted game types
+            gm.reserveIds(loadedGameTypes.lastGameTypeId, 0);
+            gm.loadGameTypeList(loadedGameTypes.gameTypes);
+            if (loadedGameTypes.damagedDatabaseRecovered){
+                Toast.makeText(this, R.string.saved_games_damaged, Toast.LENGTH_LONG).show();
+            }
+            populateListView();
+            updateEmptyState();
+        });
+
+        PersistenceWorker.getInstance().runAfterPendingSaves(() -> {
+            try {
+                int lastGameTypeId = repository.getLastGameTypeId();
+                ArrayList<GameType> gameTypes = repository.hasSavedGameTypes()
+                        ? repository.loadGameTypes() : loadLegacyGameTypeList(legacyPreferences);
+                loaded.post(new LoadedGameTypes(gameTypes, lastGameTypeId, repository.isDamagedDatabaseRecovered()));
+            }
+            catch (IOException e) {
+                // Left unloaded, so the saved list is not written over
+                Log.e("GameListActivity", "Unable to load game types", e);
+            }
+        });
+    }
 
-        SharedPreferences sharedPreferences = getSharedPreferences("Game Type Preferences", MODE_PRIVATE);
+    // Older versions of the app saved the game types as a JSON string, they are moved to the database on the next save
+    private static ArrayList<GameType> loadLegacyGameTypeList(SharedPreferences sharedPreferences) {
         Gson gson = new Gson();
 
         String json = sharedPreferences.getString("Game Type List", null);
         Type type = new TypeToken<ArrayList<GameType>>() {}.getType();
 
         if (json == null){
-            return; // keep the old instance of game manager if no save exists
+            return new ArrayList<>(); // nothing was saved yet
         }
+        return gson.fromJson(json, type);
+    }
+
+    private static class LoadedGameTypes {
+        private final ArrayList<GameType> gameTypes;
+        private final int lastGameTypeId;
+        // Read on the worker, as finding out opens the database
+        private final boolean damagedDatabaseRecovered;
 
-        // Set retrieved data if not null to game manager's game type list
-        gm.loadGameTypeList(gson.fromJson(json, type));
+        private LoadedGameTypes(ArrayList<GameType> gameTypes, int lastGameTypeId, boolean damagedDatabaseRecovered) {
+            this.gameTypes = gameTypes;
+            this.lastGameTypeId = lastGameTypeId;
+            this.damagedDatabaseRecovered = damagedDatabaseRecovered;
+        }
     }
 
     private Bitmap getBitmapFromPath(String imagePath, Resources resources) {
@@ -47,15 +47,15 @@ import java.io.FileOutputStream;
 import java.io.OutputStream;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.Collections;
 
 import ca.cmpt276.iteration1.R;
 import ca.cmpt276.iteration1.adapters.PlayerScoreInputRecyclerViewAdapter;
 import ca.cmpt276.iteration1.interfaces.PlayerScoreInputRecyclerViewInterface;
+import ca.cmpt276.iteration1.model.Difficulty;
 import ca.cmpt276.iteration1.model.GameManager;
 import ca.cmpt276.iteration1.model.GameType;
 import ca.cmpt276.iteration1.model.PlayedGame;
-import ca.cmpt276.iteration1.model.PlayerScoreInput;
+import ca.cmpt276.iteration1.model.PlayerScoreSheet;
 
 /**
 * Activity to allow user input the game information by choosing the difficulty, number of player, and each player's score
@@ -63,58 +63,57 @@ import ca.cmpt276.iteration1.model.PlayerScoreInput;
 public class GamePlayActivity extends AppCompatActivity implements PlayerScoreInputRecyclerViewInterface {
 
     private final String[] REQUIRED_PERMISSIONS = new String[]{Manifest.permission.CAMERA, Manifest.permission.WRITE_EXTERNAL_STORAGE, Manifest.permission.READ_EXTERNAL_STORAGE};
-    private final int GAME_PLAYED_POSITION_NON_EXISTENT = -1;
-    private final int INVALID_SCORE = -1;
-    private int gamePlayedPosition;
+    private static final String GAME_TYPE_ID = "GameTypeId";
+    private static final String PLAYED_GAME_ID = "PlayedGameId";
+    // Ids start at 1, so no played game has this one
+    private final int PLAYED_GAME_ID_NON_EXISTENT = 0;
+    private int playedGameId;
 
     private boolean editGameActivity = false;
     private boolean gameCompleted = false;
     private boolean choiceMade = false;
 
     private GameManager gameManager;
-    private String gameTypeString;
     private GameType gameType;
     private PlayedGame playedGame;
 
-    private String difficulty;
+    private Difficulty difficulty;
     private int playerAmount;
     private int totalScore;
     private String takePhoto;
     private String gamePlayImagePath;
 
-    private ArrayList<Integer> playerScores;
+    // Filled in by the score inputs as the user types
+    private PlayerScoreSheet playerScores;
 
     private EditText etPlayerAmount;
     private RecyclerView rvPlayerScoreInputs;
     private PlayerScoreInputRecyclerViewAdapter recyclerViewAdapter;
     private Dialog showGamePlayImageDialog;
 
-    // If a context and gameType are given, we are creating a new game
-    public static Intent makeIntent(Context context, String gameTypeString){
+    // If a context and game type id are given, we are creating a new game
+    public static Intent makeIntent(Context context, int gameTypeId){
         Intent intent = new Intent(context, GamePlayActivity.class);
-        intent.putExtra("GameTypeString", gameTypeString);
+        intent.putExtra(GAME_TYPE_ID, gameTypeId);
         return intent;
     }
 
-    // If a context and position are given, we are editing an existing game
-    public static Intent makeIntent(Context context, String gameTypeString, int position){
+    // If a played game id is given as well, we are editing an existing game
+    public static Intent makeIntent(Context context, int gameTypeId, int playedGameId){
         Intent intent = new Intent(context, GamePlayActivity.class);
-        intent.putExtra("GameTypeString", gameTypeString);
-        intent.putExtra("GamePlayedPosition", position);
+        intent.putExtra(GAME_TYPE_ID, gameTypeId);
+        intent.putExtra(PLAYED_GAME_ID, playedGameId);
         return intent;
     }
 
     private void extractIntentExtras(){
         Intent intent = getIntent();
 
-        gameTypeString = intent.getStringExtra("GameTypeString");
-        gameType = gameManager.getGameTypeFromString(gameTypeString);
+        gameType = gameManager.getGameTypeFromId(intent.getIntExtra(GAME_TYPE_ID, 0));
 
-        gamePlayedPosition = intent.getIntExtra("GamePlayedPosition", GAME_PLAYED_POSITION_NON_EXISTENT);
+        playedGameId = intent.getIntExtra(PLAYED_GAME_ID, PLAYED_GAME_ID_NON_EXISTENT);
 
-        // If we are editing a game, it will give a position relative to the list of
-        // games played for a certain type
-        if (gamePlayedPosition != GAME_PLAYED_POSITION_NON_EXISTENT){
+        if (playedGameId != PLAYED_GAME_ID_NON_EXISTENT){
             editGameActivity = true;
         }
     }
@@ -170,7 +169,7 @@ public class GamePlayActivity extends AppCompatActivity implements PlayerScoreIn
                     }
 
                     // Creating a new game
-                    if (gamePlayedPosition == GAME_PLAYED_POSITION_NON_EXISTENT){
+                    if (playedGameId == PLAYED_GAME_ID_NON_EXISTENT){
                         Toast.makeText(GamePlayActivity.this, R.string.game_created, Toast.LENGTH_SHORT).show();
                         saveNewGame();
                     }
@@ -233,21 +232,15 @@ public class GamePlayActivity extends AppCompatActivity implements PlayerScoreIn
     }
 
     private void saveNewGame(){
-        // Just reinitialize playerScores as we do not want to keep "invisible" data
-        playerScores = recyclerViewAdapter.getScores();
-
         int achievementIndex = gameType.getAchievementIndex(totalScore, playerAmount, difficulty);
         LocalDateTime datePlayed = LocalDateTime.now();
-        PlayedGame currentGame = new PlayedGame(gameTypeString, playerAmount, totalScore, achievementIndex, difficulty, playerScores, datePlayed, takePhoto, gamePlayImagePath);
+        PlayedGame currentGame = new PlayedGame(gameType.getId(), playerAmount, totalScore, achievementIndex, difficulty, playerScores.toArray(), datePlayed, takePhoto, gamePlayImagePath);
         gameManager.addPlayedGame(currentGame);
     }
 
     private void saveExistingGame(){
-        // Just reinitialize playerScores as we do not want to keep "invisible" data
-        playerScores = recyclerViewAdapter.getScores();
-
         int achievementIndex = gameType.getAchievementIndex(totalScore, playerAmount, difficulty);
-        playedGame.editPlayedGame(playerAmount, totalScore, achievementIndex, difficulty, playerScores, takePhoto, gamePlayImagePath);
+        playedGame.editPlayedGame(playerAmount, totalScore, achievementIndex, difficulty, playerScores.toArray(), takePhoto, gamePlayImagePath);
     }
 
     private void setupDifficultyButtons(){
@@ -255,9 +248,9 @@ public class GamePlayActivity extends AppCompatActivity implements PlayerScoreIn
         Button btnDifficultyNormal = findViewById(R.id.btnDifficultyNormal);
         Button btnDifficultyHard = findViewById(R.id.btnDifficultyHard);
 
-        btnDifficultyEasy.setTag("Easy");
-        btnDifficultyNormal.setTag("Normal");
-        btnDifficultyHard.setTag("Hard");
+        btnDifficultyEasy.setTag(Difficulty.EASY);
+        btnDifficultyNormal.setTag(Difficulty.NORMAL);
+        btnDifficultyHard.setTag(Difficulty.HARD);
 
         ArrayList<Button> difficultyButtons = new ArrayList<>();
         difficultyButtons.add(btnDifficultyEasy);
@@ -269,26 +262,26 @@ public class GamePlayActivity extends AppCompatActivity implements PlayerScoreIn
         // Choosing player count is hidden by default as a user needs to select a difficulty first
         // If any of these buttons are pressed, enable player count input
         btnDifficultyEasy.setOnClickListener(view -> {
-            highlightSelectedButton(btnDifficultyEasy.getTag().toString(), difficultyButtons);
+            highlightSelectedButton(btnDifficultyEasy.getTag(), difficultyButtons);
 
-            difficulty = "Easy";
+            difficulty = Difficulty.EASY;
             updateScoreTextView();
         });
         btnDifficultyNormal.setOnClickListener(view -> {
-            highlightSelectedButton(btnDifficultyNormal.getTag().toString(), difficultyButtons);
+            highlightSelectedButton(btnDifficultyNormal.getTag(), difficultyButtons);
 
-            difficulty = "Normal";
+            difficulty = Difficulty.NORMAL;
             updateScoreTextView();
         });
         btnDifficultyHard.setOnClickListener(view -> {
-            highlightSelectedButton(btnDifficultyHard.getTag().toString(), difficultyButtons);
+            highlightSelectedButton(btnDifficultyHard.getTag(), difficultyButtons);
 
-            difficulty = "Hard";
+            difficulty = Difficulty.HARD;
             updateScoreTextView();
         });
     }
 
-    private void highlightSelectedButton(String selectedButtonTag, ArrayList<Button> buttons){
+    private void highlightSelectedButton(Object selectedButtonTag, ArrayList<Button> buttons){
         for (Button btn : buttons){
             if (btn.getTag().equals(selectedButtonTag)){
                 btn.setBackgroundColor(Color.RED);
@@ -437,8 +430,8 @@ public class GamePlayActivity extends AppCompatActivity implements PlayerScoreIn
 
     private void setDefaultValues(){
         playerAmount = 4;
-        difficulty = "Normal";
-        playerScores = new ArrayList<Integer>(Collections.nCopies(playerAmount, INVALID_SCORE));
+        difficulty = Difficulty.NORMAL;
+        playerScores = new PlayerScoreSheet(playerAmount);
         choiceMade = false;
         updateScoreTextView();
     }
@@ -447,13 +440,13 @@ public class GamePlayActivity extends AppCompatActivity implements PlayerScoreIn
         editGameActivity = true;
         gameCompleted = true;
 
-        gameType = gameManager.getGameTypeFromString(gameTypeString);
-        playedGame = gameManager.getSpecificPlayedGames(gameTypeString).get(gamePlayedPosition);
+        playedGame = gameManager.getPlayedGameFromId(playedGameId);
 
         difficulty = playedGame.getDifficulty();
         playerAmount = playedGame.getNumberOfPlayers();
         totalScore = playedGame.getTotalScore();
-        playerScores = playedGame.getPlayerScores();
+        // Edited on a copy, the game's own scores only change when the edit is saved
+        playerScores = new PlayerScoreSheet(playerAmount, playedGame.getPlayerScores());
         gamePlayImagePath = playedGame.getPicturePath();
         takePhoto = playedGame.getTakePhotoOptions();
 
@@ -503,59 +496,24 @@ public class GamePlayActivity extends AppCompatActivity implements PlayerScoreIn
     };
 
     private void setupRecyclerView(){
-        // Create the models to send into the recyclerview adapter
-        ArrayList<PlayerScoreInput> playerScoreInputModels = new ArrayList<>();
-        for (int i = 0; i < playerAmount; i++){
-            try {
-                if (playerScores.get(i) == INVALID_SCORE){
-                    playerScoreInputModels.add(new PlayerScoreInput(i));
-                }
-                if (playerScores.get(i) != INVALID_SCORE){
-                    playerScoreInputModels.add(new PlayerScoreInput(i, playerScores.get(i)));
-                }
-            }
-            catch (IndexOutOfBoundsException exception){
-                playerScoreInputModels.add(new PlayerScoreInput(i));
-            }
-        }
+        // Players beyond the new amount are dropped so no "invisible" scores are kept
+        playerScores.setPlayerCount(Math.max(playerAmount, 0));
 
-        recyclerViewAdapter = new PlayerScoreInputRecyclerViewAdapter(GamePlayActivity.this, playerScoreInputModels, editGameActivity, GamePlayActivity.this);
+        recyclerViewAdapter = new PlayerScoreInputRecyclerViewAdapter(GamePlayActivity.this, playerScores, editGameActivity, GamePlayActivity.this);
         rvPlayerScoreInputs.setAdapter(recyclerViewAdapter);
         rvPlayerScoreInputs.setLayoutManager(new LinearLayoutManager(GamePlayActivity.this));
     }
 
     @Override
     public void updatePlayerScoreInputs() {
-        // https://stackoverflow.com/questions/5600668/how-can-i-initialize-an-arraylist-with-all-zeroes-in-java
-        if (playerAmount > playerScores.size()){
-            playerScores = new ArrayList<>(Collections.nCopies(playerAmount, INVALID_SCORE));
-        }
-        ArrayList<Integer> inputtedScores = recyclerViewAdapter.getScores();
-
-        for (int i = 0; i < inputtedScores.size(); i++){
-            playerScores.set(i, inputtedScores.get(i));
-        }
-
+        // The adapter has already written the new score into playerScores
         updateTotalGameScore();
     }
 
     private void updateTotalGameScore(){
-        totalScore = 0;
-        gameCompleted = true;
-
-        // We only go up to player amount to not add "invisible" scores
-        for (int i = 0; i < playerAmount; i++){
-            if (i < playerScores.size()){
-                totalScore += playerScores.get(i);
-                if (playerScores.get(i) == INVALID_SCORE){
-                    // If there is any unfilled data, do not allow user to save
-                    gameCompleted = false;
-                }
-            }
-            else {
-                totalScore += 0;
-            }
-        }
+        totalScore = playerScores.getTotalScore();
+        // If there is any unfilled data, do not allow user to save
+        gameCompleted = playerScores.isComplete();
 
         updateScoreTextView();
     }
@@ -3,6 +3,7 @@ package ca.cmpt276.iteration1.activities;
 import androidx.annotation.NonNull;
 import androidx.appcompat.app.ActionBar;
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.core.content.ContextCompat;
 import androidx.recyclerview.widget.DividerItemDecoration;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
@@ -16,6 +17,7 @@ import android.graphics.drawable.ColorDrawable;
 import android.os.Bundle;
 import android.text.Editable;
 import android.text.TextWatcher;
+import android.util.Log;
 import android.view.Menu;
 import android.view.MenuInflater;
 import android.view.MenuItem;
@@ -27,24 +29,26 @@ import android.widget.TextView;
 import android.widget.Toast;
 
 import com.google.android.material.floatingactionbutton.FloatingActionButton;
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
-import com.google.gson.TypeAdapter;
-import com.google.gson.reflect.TypeToken;
-import com.google.gson.stream.JsonReader;
-import com.google.gson.stream.JsonWriter;
 
 import java.io.IOException;
-import java.lang.reflect.Type;
-import java.time.LocalDateTime;
+import java.io.StringReader;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 
 import ca.cmpt276.iteration1.R;
+import ca.cmpt276.iteration1.model.Difficulty;
 import ca.cmpt276.iteration1.model.GameManager;
 import ca.cmpt276.iteration1.model.GameType;
+import ca.cmpt276.iteration1.model.HistoryPeriod;
 import ca.cmpt276.iteration1.model.PlayedGame;
 import ca.cmpt276.iteration1.adapters.GamePlayedListRecyclerViewAdapter;
 import ca.cmpt276.iteration1.interfaces.GamePlayedListRecyclerViewInterface;
+import ca.cmpt276.iteration1.interfaces.RescoreProgressListener;
+import ca.cmpt276.iteration1.persistence.GameRepository;
+import ca.cmpt276.iteration1.persistence.PersistenceWorker;
+import ca.cmpt276.iteration1.persistence.SqliteGameRepository;
 
 
 /**
@@ -52,27 +56,32 @@ import ca.cmpt276.iteration1.interfaces.GamePlayedListRecyclerViewInterface;
  */
 public class GamePlayedListActivity extends AppCompatActivity implements GamePlayedListRecyclerViewInterface {
 
-    private static final String GAME_TYPE_INDEX = "Position";
+    private static final String GAME_TYPE_ID = "GameTypeId";
+    private static final String LEGACY_PREFERENCES = "Game Played Preferences";
+    private static final String LEGACY_PLAYED_GAME_LIST = "Game Played List";
 
     // Index of which type of game we're dealing with
-    private int gameTypeIndex;
+    private int gameTypeId;
 
     private GameManager gm;
     private String gameTypeString;
     private GameType gameType;
     private GamePlayedListRecyclerViewAdapter adapter;
+    private boolean historyLoaded = false;
+    // Period of the history being shown, null shows every game
+    private HistoryPeriod historyPeriod;
 
     // Fields for the achievement levels dialog
     private Dialog achievementLevelsDialog;
     private Dialog statisticsDialog;
     private TextView achievementLevels;
     private EditText achievementLevelPlayerCount;
-    private String dialogSelectedDifficulty = "Normal";
+    private Difficulty dialogSelectedDifficulty = Difficulty.NORMAL;
     private ArrayList<Button> difficultyButtons;
 
-    public static Intent makeIntent(Context context, int pos){
+    public static Intent makeIntent(Context context, int gameTypeId){
         Intent intent = new Intent(context, GamePlayedListActivity.class);
-        intent.putExtra(GAME_TYPE_INDEX, pos);
+        intent.putExtra(GAME_TYPE_ID, gameTypeId);
         return intent;
     }
 
@@ -116,6 +125,22 @@ public class GamePlayedListActivity extends AppCompatActivity implements GamePla
                 createStatisticsDialog();
                 break;
             }
+            case (R.id.btnShowAllGames): {
+                selectHistoryPeriod(item, null);
+                break;
+            }
+            case (R.id.btnShowThisWeek): {
+                selectHistoryPeriod(item, HistoryPeriod.WEEK);
+                break;
+            }
+            case (R.id.btnShowThisMonth): {
+                selectHistoryPeriod(item, HistoryPeriod.MONTH);
+                break;
+            }
+            case (R.id.btnShowThisSeason): {
+                selectHistoryPeriod(item, HistoryPeriod.SEASON);
+                break;
+            }
             case (android.R.id.home): {
                 finish();
                 break;
@@ -126,26 +151,50 @@ public class GamePlayedListActivity extends AppCompatActivity implements GamePla
     }
 
 
-    @Override
-    public void onBackPressed(){
-        saveGamesPlayedList();
-        super.onBackPressed();
+    private void selectHistoryPeriod(MenuItem item, HistoryPeriod period) {
+        if (!historyLoaded){
+            Toast.makeText(this, R.string.loading_game_history, Toast.LENGTH_SHORT).show();
+            return;
+        }
+        item.setChecked(true);
+        historyPeriod = period;
+        showHistoryPeriod();
+        updateEmptyState();
+    }
+
+    // Only the games of the period are looked up in the game manager's date index, the rest of the history is not read
+    private void showHistoryPeriod() {
+        if (historyPeriod == null){
+            adapter.showPlayedGames(gm.getSpecificPlayedGames(gameTypeId));
+            return;
+        }
+        LocalDate today = LocalDate.now();
+        adapter.showPlayedGames(gm.getSpecificPlayedGamesBetween(gameTypeId,
+                historyPeriod.getStart(today), historyPeriod.getEnd(today)));
     }
 
     @Override
     public void onResume() {
-        saveGamesPlayedList();
+        updateEmptyState();
+        super.onResume();
+    }
 
+    private void updateEmptyState() {
         // if no games are made in the current type yet show empty state otherwise set the text view to blank.
         TextView gamePlayedEmptyState = findViewById(R.id.tvGamePlayedEmptyState);
-        if(gm.getSpecificPlayedGames(gameTypeString).isEmpty()) {
+        if (!historyLoaded) {
+            gamePlayedEmptyState.setText(R.string.loading_game_history);
+        }
+        else if(gm.getSpecificPlayedGames(gameTypeId).isEmpty()) {
             gamePlayedEmptyState.setText(R.string.empty_game_state);
 
         }
+        else if(adapter.getItemCount() == 0) {
+            gamePlayedEmptyState.setText(R.string.no_games_in_period);
+        }
         else{
             gamePlayedEmptyState.setText(R.string.blank);
         }
-        super.onResume();
     }
 
     @Override
@@ -157,84 +206,134 @@ public class GamePlayedListActivity extends AppCompatActivity implements GamePla
 
     private void extractDataFromIntent() {
         Intent intent = getIntent();
-        gameTypeIndex = intent.getIntExtra(GAME_TYPE_INDEX, 0);
+        gameTypeId = intent.getIntExtra(GAME_TYPE_ID, 0);
 
         // Retrieve the type of game we're playing as
-        gameTypeString = gm.getGameTypeAtIndex(gameTypeIndex).getGameType();
+        gameTypeString = gm.getGameTypeFromId(gameTypeId).getGameType();
     }
 
     private void setUpFab() {
         FloatingActionButton fab = findViewById(R.id.fab_addGame);
         fab.setOnClickListener(v -> {
-            Intent intent = GamePlayActivity.makeIntent(GamePlayedListActivity.this, gameTypeString);
+            if (!historyLoaded){
+                Toast.makeText(GamePlayedListActivity.this, R.string.loading_game_history, Toast.LENGTH_SHORT).show();
+                return;
+            }
+            Intent intent = GamePlayActivity.makeIntent(GamePlayedListActivity.this, gameTypeId);
             startActivity(intent);
         });
     }
 
-    private void saveGamesPlayedList(){
-        // https://www.youtube.com/watch?v=jcliHGR3CHo
-        SharedPreferences sharedPreferences = getSharedPreferences("Game Played Preferences", MODE_PRIVATE);
-        SharedPreferences.Editor editor = sharedPreferences.edit();
-
-        // https://www.javadoc.io/doc/com.google.code.gson/gson/latest/com.google.gson/com/google/gson/GsonBuilder.html
-        // https://docs.oracle.com/en/java/javase/16/docs/api/java.base/java/time/LocalDateTime.html
-        // https://www.javadoc.io/doc/com.google.code.gson/gson/2.8.1/com/google/gson/TypeAdapter.html
-        // https://www.javadoc.io/doc/com.google.code.gson/gson/2.6.2/com/google/gson/stream/JsonWriter.html
-        // https://stackoverflow.com/questions/61432170/how-to-serialize-localdate-using-gson
-
-        Gson gson = new GsonBuilder().registerTypeAdapter(LocalDateTime.class,
-                new TypeAdapter<LocalDateTime>() {
-                    @Override
-                    public void write(JsonWriter jsonWriter,
-                                      LocalDateTime localDateTime) throws IOException {
-                        jsonWriter.value(localDateTime.toString());
-                    }
-                    @Override
-                    public LocalDateTime read(JsonReader jsonReader) throws IOException {
-                        return LocalDateTime.parse(jsonReader.nextString());
-                    }
-                }).setPrettyPrinting().create();
-
-        String json = gson.toJson(gm.getPlayedGames());
-
-        editor.putString("Game Played List", json);
-        editor.apply();
+    // The process can be killed any time after the app leaves the screen, so finish the queued saves first
+    @Override
+    protected void onStop() {
+        PendingSaves.flush("GamePlayedListActivity");
+        super.onStop();
     }
 
     private void loadGamesPlayedList() {
         gm = GameManager.getInstance();
 
-        // https://www.youtube.com/watch?v=jcliHGR3CHo
-        SharedPreferences sharedPreferences = getSharedPreferences("Game Played Preferences", MODE_PRIVATE);
-
-        // https://www.javadoc.io/doc/com.google.code.gson/gson/latest/com.google.gson/com/google/gson/GsonBuilder.html
-        // https://docs.oracle.com/en/java/javase/16/docs/api/java.base/java/time/LocalDateTime.html
-        // https://www.javadoc.io/doc/com.google.code.gson/gson/2.8.1/com/google/gson/TypeAdapter.html
-        // https://www.javadoc.io/doc/com.google.code.gson/gson/2.6.2/com/google/gson/stream/JsonWriter.html
-        // https://stackoverflow.com/questions/61432170/how-to-serialize-localdate-using-gson
-
-        Gson gson = new GsonBuilder().registerTypeAdapter(LocalDateTime.class,
-                new TypeAdapter<LocalDateTime>() {
-                    @Override
-                    public void write(JsonWriter jsonWriter,
-                                      LocalDateTime localDateTime) throws IOException {
-                        jsonWriter.value(localDateTime.toString());
-                    }
-                    @Override
-                    public LocalDateTime read(JsonReader jsonReader) throws IOException {
-                        return LocalDateTime.parse(jsonReader.nextString());
-                    }
-                }).setPrettyPrinting().create();
-
-        String json = sharedPreferences.getString("Game Played List", null);
-        Type type = new TypeToken<ArrayList<PlayedGame>>() {}.getType();
+        GameRepository repository = SqliteGameRepository.getInstance(this);
+        gm.setPlayedGameListener(repository);
+        if (gm.isSpecificPlayedGamesLoaded(gameTypeId)){
+            historyLoaded = true;
+            return; // the game manager has had every change since the games were loaded
+        }
 
+        // Read only this game type's games on the persistence worker, after any saves still waiting to be
+        // written, showing each page as it arrives. Nothing the worker holds refers to this screen
+        historyLoaded = false;
+        int loadingGameTypeId = gameTypeId;
+        SharedPreferences legacyPreferences = getSharedPreferences(LEGACY_PREFERENCES, MODE_PRIVATE);
+        HashMap<String, Integer> gameTypeIdsByName = gm.getGameTypeIdsByName();
+        MainThreadCallback<List<PlayedGame>> pageLoaded = new MainThreadCallback<>(this, this::showLoadedPage);
+        MainThreadCallback<LoadedPlayedGames> historyRead = new MainThreadCallback<>(this, this::showLoadedHistory);
+
+        PersistenceWorker.getInstance().runAfterPendingSaves(() -> {
+            try {
+                if (!repository.hasSavedPlayedGames()){
+                    importLegacyGamesPlayedList(repository, legacyPreferences, gameTypeIdsByName);
+                }
+                ArrayList<PlayedGame> playedGames = repository.loadPlayedGames(loadingGameTypeId, pageLoaded::post);
+                // Games of other types are not loaded, but their ids must not be handed out again
+                historyRead.post(new LoadedPlayedGames(playedGames, repository.getLastPlayedGameId()));
+            }
+            catch (IOException e) {
+                Log.e("GamePlayedListActivity", "Unable to load played games", e);
+            }
+        });
+    }
+
+    private void showLoadedHistory(LoadedPlayedGames loadedPlayedGames) {
+        gm.reserveIds(0, loadedPlayedGames.lastPlayedGameId);
+        // Another screen may have loaded them first, and added games since
+        if (!gm.isSpecificPlayedGamesLoaded(gameTypeId)){
+            gm.loadSpecificPlayedGames(gameTypeId, loadedPlayedGames.playedGames);
+        }
+        historyLoaded = true;
+        populateRecyclerView();
+        updateEmptyState();
+        rescoreHistory();
+    }
+
+    private static class LoadedPlayedGames {
+        private final ArrayList<PlayedGame> playedGames;
+        private final int lastPlayedGameId;
+
+        private LoadedPlayedGames(ArrayList<PlayedGame> playedGames, int lastPlayedGameId) {
+            this.playedGames = playedGames;
+            this.lastPlayedGameId = lastPlayedGameId;
+        }
+    }
+
+    // Games saved before the game type's scores last changed still have the achievements of the old
+    // scores, so the loaded history is scored again, with the progress shown under the title. The
+    // games are updated on the main thread, the progress is handed over through callbacks that stop
+    // once this screen is destroyed
+    private void rescoreHistory() {
+        if (!gm.needsRescoring(gameTypeId)){
+            return;
+        }
+        MainThreadCallback<Integer> progressShown = new MainThreadCallback<>(this, percent ->
+                getSupportActionBar().setSubtitle(getString(R.string.rescoring_achievements, percent)));
+        MainThreadCallback<Integer> rescoreFinished = new MainThreadCallback<>(this, gamesChanged -> {
+            getSupportActionBar().setSubtitle(null);
+            if (gamesChanged > 0){
+                adapter.notifyDataSetChanged();
+            }
+        });
+        gm.rescoreSpecificPlayedGames(gameTypeId, ContextCompat.getMainExecutor(this), new RescoreProgressListener() {
+            @Override
+            public void onRescoreProgress(int gamesRescored, int gameCount) {
+                progressShown.post((int) (100L * gamesRescored / gameCount));
+            }
+
+            @Override
+            public void onRescoreFinished(int gamesChanged) {
+                rescoreFinished.post(gamesChanged);
+            }
+        });
+    }
+
+    private void showLoadedPage(List<PlayedGame> page) {
+        if (historyLoaded){
+            return; // the full history has already been shown
+        }
+        adapter.addPlayedGames(page);
+    }
+
+    // Moves games saved by older versions of the app (one big JSON string) into the database
+    private static void importLegacyGamesPlayedList(GameRepository repository, SharedPreferences sharedPreferences,
+                                                    HashMap<String, Integer> gameTypeIdsByName) throws IOException {
+        // https://www.youtube.com/watch?v=jcliHGR3CHo
+        String json = sharedPreferences.getString(LEGACY_PLAYED_GAME_LIST, null);
         if (json == null){
-            return; // keep the old instance of game manager if no save exists
+            return;
         }
 
-        // Set retrieved data if not null to game manager's playedGame list
-        gm.loadGamePlayedList(gson.fromJson(json, type));
+        repository.importPlayedGames(new StringReader(json), gameTypeIdsByName);
+        sharedPreferences.edit().remove(LEGACY_PLAYED_GAME_LIST).apply();
     }
 
     private void createAchievementLevelDialog() {
@@ -243,7 +342,7 @@ public class GamePlayedListActivity extends AppCompatActivity implements GamePla
         achievementLevelsDialog.getWindow().setBackgroundDrawable(new ColorDrawable(Color.TRANSPARENT));
         achievementLevelsDialog.show();
 
-        gameType = gm.getGameTypeFromString(this.gameTypeString);
+        gameType = gm.getGameTypeFromId(gameTypeId);
 
         Button btnDialogDifficultyEasy = achievementLevelsDialog.findViewById(R.id.btnDialogDifficultyEasy);
         Button btnDialogDifficultyNormal = achievementLevelsDialog.findViewById(R.id.btnDialogDifficultyNormal);
@@ -260,21 +359,21 @@ public class GamePlayedListActivity extends AppCompatActivity implements GamePla
         btnDialogDifficultyEasy.setOnClickListener(view -> {
             highlightSelectedDifficultyButton(btnDialogDifficultyEasy.getId());
 
-            dialogSelectedDifficulty = "Easy";
+            dialogSelectedDifficulty = Difficulty.EASY;
             setAchievementLevelsText();
             Toast.makeText(GamePlayedListActivity.this, R.string.selected_easy, Toast.LENGTH_SHORT).show();
         });
         btnDialogDifficultyNormal.setOnClickListener(view -> {
             highlightSelectedDifficultyButton(btnDialogDifficultyNormal.getId());
 
-            dialogSelectedDifficulty = "Normal";
+            dialogSelectedDifficulty = Difficulty.NORMAL;
             setAchievementLevelsText();
             Toast.makeText(GamePlayedListActivity.this, R.string.selected_normal, Toast.LENGTH_SHORT).show();
         });
         btnDialogDifficultyHard.setOnClickListener(view -> {
             highlightSelectedDifficultyButton(btnDialogDifficultyHard.getId());
 
-            dialogSelectedDifficulty = "Hard";
+            dialogSelectedDifficulty = Difficulty.HARD;
             setAchievementLevelsText();
             Toast.makeText(GamePlayedListActivity.this, R.string.selected_hard, Toast.LENGTH_SHORT).show();
         });
@@ -310,32 +409,21 @@ public class GamePlayedListActivity extends AppCompatActivity implements GamePla
         statisticsDialog.getWindow().setBackgroundDrawable(new ColorDrawable(Color.TRANSPARENT));
         statisticsDialog.show();
 
-        gameType = gm.getGameTypeFromString(this.gameTypeString);
+        gameType = gm.getGameTypeFromId(gameTypeId);
         populateStatisticsDialog();
     }
 
     /**
-     * for each played game in specific played game create an array with indexes as achievement index and arr[i] as amt of achievements
+     * Reads the achievement counts the manager keeps for this game type, saved with the type so they
+     * are there before the history has loaded
      * Stores strings in format "achievment: 4" for adapter then displays on list view
-     * O(n) n = specificPlayedGames size
+     * O(1), however many games were played
      */
     private void populateStatisticsDialog(){
-        // for each played game in specific played game create an array with indexes as achievement index and arr[i] as amt of achievements O(n + k) run time vs O(8n)
-        ArrayList<PlayedGame> specificPlayedGames = gm.getSpecificPlayedGames(this.gameTypeString);
-        int[] achievementsEarnedInts = new int[8];
+        int[] achievementsEarnedInts = gm.getSpecificAchievementCounts(gameTypeId);
         String[] achievementsEarnedStrings = new String[8];
         int achievementTheme = gm.getAchievementTheme();
 
-        // initialize each index to have 0 achievements earned instead of garbage/null values
-        for(int i = 0; i < 8; i++) {
-            achievementsEarnedInts[i] = 0;
-        }
-
-        // adds 1 for each achievement earned per currGame
-        for(PlayedGame currGame : specificPlayedGames){
-            achievementsEarnedInts[currGame.getAchievementIndex()] += 1;
-        }
-
         // stores the strings for adapter
         for(int i = 0; i < 8; i++){
             achievementsEarnedStrings[i] = gameType.getSpecificAchievement(achievementTheme,i) + ": " + achievementsEarnedInts[i];
@@ -367,9 +455,10 @@ public class GamePlayedListActivity extends AppCompatActivity implements GamePla
                 achievementLevels.setText(R.string.invalid_num_of_player);
             }
             else {
-                String message = "";
+                // The scores come from the game type's cached threshold table, only the text is built here
+                StringBuilder message = new StringBuilder();
                 for (String line : gameType.getAchievementLevelScoreRequirements(playerCount, dialogSelectedDifficulty)) {
-                    message += line + "\n";
+                    message.append(line).append('\n');
                 }
                 achievementLevels.setText(message);
             }
@@ -386,19 +475,30 @@ public class GamePlayedListActivity extends AppCompatActivity implements GamePla
         RecyclerView rv = findViewById(R.id.rv_gameHistory);
         rv.setLayoutManager(new LinearLayoutManager(this));
         rv.addItemDecoration(new DividerItemDecoration(this, DividerItemDecoration.VERTICAL));
-        adapter = new GamePlayedListRecyclerViewAdapter(GamePlayedListActivity.this, GamePlayedListActivity.this, gameTypeString);
+        adapter = new GamePlayedListRecyclerViewAdapter(GamePlayedListActivity.this, GamePlayedListActivity.this, gameTypeId);
         rv.setAdapter(adapter);
+        if (historyLoaded && historyPeriod != null){
+            showHistoryPeriod();
+        }
     }
 
     @Override
     public void onItemClick(int position){
-        Intent intent = AchievementCelebrationActivity.makeIntent(GamePlayedListActivity.this, gameTypeString, position);
+        if (!historyLoaded){
+            return; // games shown while loading are only in the game manager once loading has finished
+        }
+        int playedGameId = adapter.getPlayedGame(position).getId();
+        Intent intent = AchievementCelebrationActivity.makeIntent(GamePlayedListActivity.this, playedGameId);
         startActivity(intent);
     }
 
     @Override
     public void onItemLongClick(int position) {
-        Intent intent = GamePlayActivity.makeIntent(GamePlayedListActivity.this, gameTypeString, position);
+        if (!historyLoaded){
+            return;
+        }
+        int playedGameId = adapter.getPlayedGame(position).getId();
+        Intent intent = GamePlayActivity.makeIntent(GamePlayedListActivity.this, gameTypeId, playedGameId);
         startActivity(intent);
     }
 }
\ No newline at end of file
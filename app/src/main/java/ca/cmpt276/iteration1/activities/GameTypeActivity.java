@@ -21,7 +21,10 @@ import android.graphics.Path;
 import android.graphics.drawable.Drawable;
 import android.os.Bundle;
 import android.os.Environment;
+import android.os.Handler;
+import android.os.Looper;
 import android.provider.MediaStore;
+import android.text.format.Formatter;
 import android.view.Menu;
 import android.view.MenuInflater;
 import android.view.MenuItem;
@@ -46,7 +49,7 @@ import ca.cmpt276.iteration1.model.GameType;
  * and a bad score (per player should look like)
  */
 public class GameTypeActivity extends AppCompatActivity {
-    public static final String GAME_TYPE = "GameType";
+    public static final String GAME_TYPE_ID = "GameTypeId";
     public static final String EDIT_GAME_TYPE = "EditGameType";
     private MenuInflater menuInflater;
 
@@ -54,6 +57,7 @@ public class GameTypeActivity extends AppCompatActivity {
     private final String[] REQUIRED_PERMISSIONS = new String[]{Manifest.permission.CAMERA, Manifest.permission.WRITE_EXTERNAL_STORAGE, Manifest.permission.READ_EXTERNAL_STORAGE};
 
     private boolean editGameActivity;
+    private int gameTypeId;
     private String gameTypeString;
     private String gamePicturePath;
     private GameType gameType;
@@ -69,12 +73,12 @@ public class GameTypeActivity extends AppCompatActivity {
         return new Intent(context, GameTypeActivity.class);
     }
 
-    // If parameter argument includes a string for gameType, we are editing an existing game type
-    public static Intent makeIntent(Context context, String gameType){
+    // If parameter argument includes the id of a game type, we are editing an existing game type
+    public static Intent makeIntent(Context context, int gameTypeId){
         Intent intent = new Intent(context, GameTypeActivity.class);
 
         intent.putExtra(EDIT_GAME_TYPE, true);
-        intent.putExtra(GAME_TYPE, gameType);
+        intent.putExtra(GAME_TYPE_ID, gameTypeId);
 
         return intent;
     }
@@ -82,7 +86,7 @@ public class GameTypeActivity extends AppCompatActivity {
     private void extractIntentExtras(){
         Intent intent = getIntent();
         editGameActivity = intent.getBooleanExtra(EDIT_GAME_TYPE, false);
-        gameTypeString = intent.getStringExtra(GAME_TYPE);
+        gameTypeId = intent.getIntExtra(GAME_TYPE_ID, 0);
     }
 
     @Override
@@ -105,7 +109,8 @@ public class GameTypeActivity extends AppCompatActivity {
         extractIntentExtras();
         // If we are editing an existing game type
         if (editGameActivity == true){
-            gameType = gameManager.getGameTypeFromString(gameTypeString);
+            gameType = gameManager.getGameTypeFromId(gameTypeId);
+            gameTypeString = gameType.getGameType();
             appBarTitle = getString(R.string.edit_game_type);
             setGameTypeInfo();
         }
@@ -252,9 +257,16 @@ public class GameTypeActivity extends AppCompatActivity {
 
             case R.id.btnDelete: {
                 try{
-                    gameManager.deleteGameType(gameTypeString);
-                    String res = getString(R.string.deleting) + " " + gameTypeString;
-                    Toast.makeText(this, res, Toast.LENGTH_SHORT).show();
+                    // The saved games are deleted in the background after this screen is gone, so the
+                    // toast is shown through the application once they are
+                    Context appContext = getApplicationContext();
+                    Handler mainThread = new Handler(Looper.getMainLooper());
+                    String deletedGameType = gameTypeString;
+                    gameManager.deleteGameType(gameTypeId, deletion -> mainThread.post(() -> {
+                        String res = appContext.getString(R.string.deleted_game_type, deletedGameType, deletion.getPlayedGamesDeleted(),
+                                Formatter.formatShortFileSize(appContext, deletion.getBytesReclaimed()));
+                        Toast.makeText(appContext, res, Toast.LENGTH_SHORT).show();
+                    }));
                     finish();
                 }
                 catch(Exception e){
@@ -277,7 +289,12 @@ public class GameTypeActivity extends AppCompatActivity {
         int newGoodScore = Integer.parseInt(goodScore.getText().toString());
         int newBadScore = Integer.parseInt(badScore.getText().toString());
 
+        boolean scoresChanged = newGoodScore != gameType.getGoodScore() || newBadScore != gameType.getBadScore();
         gameType.editGameType(newGameName, newGoodScore, newBadScore, gamePicturePath);
+        // Loaded games get the achievements of the new scores now, the rest when their history is next opened
+        if (scoresChanged){
+            gameManager.rescoreSpecificPlayedGames(gameType.getId(), ContextCompat.getMainExecutor(this), null);
+        }
     }
 
     private void setGameTypeInfo(){
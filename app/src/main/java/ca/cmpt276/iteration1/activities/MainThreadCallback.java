@@ -0,0 +1,53 @@
+package ca.cmpt276.iteration1.activities;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.DefaultLifecycleObserver;
+import androidx.lifecycle.LifecycleOwner;
+
+/**
+ * Hands results from a background thread to a screen on the main thread, for as long as the screen
+ * exists. Results that arrive after it is destroyed are dropped, so background work never touches a
+ * destroyed activity or keeps one from being garbage collected.
+ */
+public class MainThreadCallback<T> implements DefaultLifecycleObserver {
+    /**
+     * Called on the main thread with each result posted while the screen exists.
+     */
+    public interface Receiver<T> {
+        void receive(T result);
+    }
+
+    private static final Handler MAIN_THREAD = new Handler(Looper.getMainLooper());
+
+    // Null once the screen is destroyed, which lets go of the screen the receiver refers to
+    private volatile Receiver<T> receiver;
+
+    /**
+     * Must be made on the main thread, such as in onCreate.
+     */
+    public MainThreadCallback(LifecycleOwner owner, Receiver<T> receiver) {
+        this.receiver = receiver;
+        owner.getLifecycle().addObserver(this);
+    }
+
+    /**
+     * Safe to call from any thread
+     */
+    public void post(T result) {
+        MAIN_THREAD.post(() -> {
+            Receiver<T> currentReceiver = receiver;
+            if (currentReceiver != null) {
+                currentReceiver.receive(result);
+            }
+        });
+    }
+
+    @Override
+    public void onDestroy(@NonNull LifecycleOwner owner) {
+        receiver = null;
+        owner.getLifecycle().removeObserver(this);
+    }
+}
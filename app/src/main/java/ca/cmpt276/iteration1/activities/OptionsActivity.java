@@ -19,8 +19,12 @@ import android.widget.RadioGroup;
 
 import com.google.gson.Gson;
 
+import java.io.IOException;
+
 import ca.cmpt276.iteration1.R;
 import ca.cmpt276.iteration1.model.GameManager;
+import ca.cmpt276.iteration1.persistence.PersistenceWorker;
+import ca.cmpt276.iteration1.persistence.SaveTracker;
 
 public class OptionsActivity extends AppCompatActivity {
     public static final String OPTIONS_PREFERENCES = "Options Preferences";
@@ -29,6 +33,9 @@ public class OptionsActivity extends AppCompatActivity {
     private final int REQUEST_PERMISSIONS_CODE = 10;
     private final String[] REQUIRED_PERMISSIONS = new String[]{Manifest.permission.CAMERA, Manifest.permission.WRITE_EXTERNAL_STORAGE, Manifest.permission.READ_EXTERNAL_STORAGE};
 
+    // Shared by every instance of the screen, so reopening it without picking a theme does not save again
+    private static final SaveTracker OPTIONS_SAVE_TRACKER = new SaveTracker();
+
     private GameManager gameManager;
 
 
@@ -69,13 +76,23 @@ public class OptionsActivity extends AppCompatActivity {
     }
 
     private void saveOptions() {
+        long themeVersion = GameManager.getInstance().getAchievementThemeVersion();
+        int achievementThemeIndex = GameManager.getInstance().getAchievementTheme();
         SharedPreferences sharedPreferences = getSharedPreferences(OPTIONS_PREFERENCES, MODE_PRIVATE);
-        SharedPreferences.Editor editor = sharedPreferences.edit();
 
-        int achievementThemeIndex = GameManager.getInstance().getAchievementTheme();
+        // commit() blocks until written, which is fine on the worker and lets a flush know the options are on disk
+        PersistenceWorker.getInstance().submit(OPTIONS_PREFERENCES, () -> {
+            if (!OPTIONS_SAVE_TRACKER.shouldSave(themeVersion)){
+                return;
+            }
 
-        editor.putInt(ACHIEVEMENT_THEME_INDEX, achievementThemeIndex);
-        editor.apply();
+            SharedPreferences.Editor editor = sharedPreferences.edit();
+            editor.putInt(ACHIEVEMENT_THEME_INDEX, achievementThemeIndex);
+            if (!editor.commit()){
+                throw new IOException("Unable to save the options.");
+            }
+            OPTIONS_SAVE_TRACKER.markSaved(themeVersion);
+        });
     }
 
     private void createRadioButtons() {
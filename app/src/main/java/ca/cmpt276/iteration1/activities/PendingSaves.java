@@ -0,0 +1,33 @@
+package ca.cmpt276.iteration1.activities;
+
+import android.util.Log;
+
+import java.io.IOException;
+
+import ca.cmpt276.iteration1.persistence.PersistenceWorker;
+
+/**
+ * Finishes the saves queued on the PersistenceWorker when a screen stops, as the process can be
+ * killed any time after the app leaves the screen. Waits at most STOP_FLUSH_TIMEOUT_MS, the saves
+ * still running after that carry on in the background.
+ */
+public class PendingSaves {
+    private PendingSaves() {
+        // static helpers only
+    }
+
+    /**
+     * Call from the main thread, for example in onStop.
+     * @param tag Log tag of the screen that stopped
+     */
+    public static void flush(String tag) {
+        try {
+            if (!PersistenceWorker.getInstance().flush(PersistenceWorker.STOP_FLUSH_TIMEOUT_MS)){
+                Log.w(tag, "Saves are still being written in the background");
+            }
+        }
+        catch (IOException e) {
+            Log.e(tag, "Unable to save", e);
+        }
+    }
+}
@@ -13,6 +13,7 @@ import androidx.recyclerview.widget.RecyclerView;
 
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.List;
 
 import ca.cmpt276.iteration1.R;
 import ca.cmpt276.iteration1.activities.GamePlayActivity;
@@ -36,14 +37,16 @@ public class GamePlayedListRecyclerViewAdapter extends RecyclerView.Adapter<Game
 
     GameManager gameManager;
     GameType gameType;
-    ArrayList<PlayedGame> playedGames;
+    List<PlayedGame> playedGames;
+    // Games shown so far while the history is loading, the game manager only has them once loading finishes
+    private ArrayList<PlayedGame> loadedPages;
 
     private final DateTimeFormatter dateTimeFormatter = DateTimeFormatter.ofPattern("MMM dd @ hh.mm a");
 
-    public GamePlayedListRecyclerViewAdapter(Context context, GamePlayedListRecyclerViewInterface recyclerViewInterface, String gameTypeString){
+    public GamePlayedListRecyclerViewAdapter(Context context, GamePlayedListRecyclerViewInterface recyclerViewInterface, int gameTypeId){
         this.gameManager = GameManager.getInstance();
-        this.gameType = gameManager.getGameTypeFromString(gameTypeString);
-        this.playedGames = gameManager.getSpecificPlayedGames(gameTypeString);
+        this.gameType = gameManager.getGameTypeFromId(gameTypeId);
+        this.playedGames = gameManager.getSpecificPlayedGames(gameTypeId);
         this.context = context;
         this.recyclerViewInterface = recyclerViewInterface;
     }
@@ -96,7 +99,7 @@ public class GamePlayedListRecyclerViewAdapter extends RecyclerView.Adapter<Game
         holder.dScore.setText(String.valueOf(playedGames.get(position).getTotalScore()));
         holder.dNoOfPlayer.setText(String.valueOf(playedGames.get(position).getNumberOfPlayers()));
         holder.dAchievement.setText(playedGames.get(position).getAchievement());
-        holder.dDifficulty.setText(playedGames.get(position).getDifficulty());
+        holder.dDifficulty.setText(playedGames.get(position).getDifficulty().getLabel());
         holder.dDatePlayed.setText(context.getString(R.string.display_game_play_date, playedGames.get(position).getDatePlayed().format(dateTimeFormatter)));
     }
 
@@ -105,4 +108,30 @@ public class GamePlayedListRecyclerViewAdapter extends RecyclerView.Adapter<Game
         return playedGames.size();
     }
 
+    public PlayedGame getPlayedGame(int position) {
+        return playedGames.get(position);
+    }
+
+    /**
+     * Shows only the given played games, such as those of one period, instead of the whole history
+     */
+    public void showPlayedGames(List<PlayedGame> playedGames) {
+        this.playedGames = playedGames;
+        loadedPages = null;
+        notifyDataSetChanged();
+    }
+
+    /**
+     * Shows more played games at the end of the list, used while the history is still loading
+     */
+    public void addPlayedGames(List<PlayedGame> page) {
+        if (loadedPages == null){
+            loadedPages = new ArrayList<>(playedGames);
+            playedGames = loadedPages;
+        }
+        int firstPosition = loadedPages.size();
+        loadedPages.addAll(page);
+        notifyItemRangeInserted(firstPosition, page.size());
+    }
+
 }
\ No newline at end of file
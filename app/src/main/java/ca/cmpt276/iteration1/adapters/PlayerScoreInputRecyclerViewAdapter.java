@@ -4,7 +4,6 @@ import android.annotation.SuppressLint;
 import android.content.Context;
 import android.text.Editable;
 import android.text.TextWatcher;
-import android.util.Log;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -14,12 +13,9 @@ import android.widget.TextView;
 import androidx.annotation.NonNull;
 import androidx.recyclerview.widget.RecyclerView;
 
-import java.util.ArrayList;
-import java.util.Arrays;
-
 import ca.cmpt276.iteration1.R;
 import ca.cmpt276.iteration1.interfaces.PlayerScoreInputRecyclerViewInterface;
-import ca.cmpt276.iteration1.model.PlayerScoreInput;
+import ca.cmpt276.iteration1.model.PlayerScoreSheet;
 
 
 // Citation: https://www.youtube.com/watch?v=O9hdu8i-u9c
@@ -31,36 +27,19 @@ import ca.cmpt276.iteration1.model.PlayerScoreInput;
 public class PlayerScoreInputRecyclerViewAdapter extends RecyclerView.Adapter<PlayerScoreInputRecyclerViewAdapter.MyViewHolder> {
 
     private final String PLAYER_SCORE_EDIT_TEXT_KEY = "id";
-    private final int INVALID_SCORE = -1;
 
     private final Context context;
     private final boolean editGame;
-    private final ArrayList<PlayerScoreInput> playerScoreInputs;
     private final PlayerScoreInputRecyclerViewInterface recyclerViewInterface;
 
-    // Stores the data in the edit text for all the recyclerviews
-    private final int[] recyclerViewEditTextData;
+    // Shared with GamePlayActivity, each edit text writes its player's score straight into it
+    private final PlayerScoreSheet playerScores;
 
-    public PlayerScoreInputRecyclerViewAdapter(Context context, ArrayList<PlayerScoreInput> playerScoreInputs, boolean editGame, PlayerScoreInputRecyclerViewInterface recyclerViewInterface){
+    public PlayerScoreInputRecyclerViewAdapter(Context context, PlayerScoreSheet playerScores, boolean editGame, PlayerScoreInputRecyclerViewInterface recyclerViewInterface){
         this.context = context;
-        this.playerScoreInputs = playerScoreInputs;
+        this.playerScores = playerScores;
         this.editGame = editGame;
         this.recyclerViewInterface = recyclerViewInterface;
-
-        recyclerViewEditTextData = new int[playerScoreInputs.size()];
-        Arrays.fill(recyclerViewEditTextData, INVALID_SCORE);
-
-        for (int i = 0; i < playerScoreInputs.size(); i ++) {
-            int playerScore = playerScoreInputs.get(i).getPlayerScore();
-
-            if (playerScore == INVALID_SCORE){
-                recyclerViewEditTextData[i] = INVALID_SCORE;
-            }
-            else {
-                recyclerViewEditTextData[i] = playerScore;
-            }
-        }
-
     }
 
     // Viewholder for recyclerview
@@ -100,8 +79,8 @@ public class PlayerScoreInputRecyclerViewAdapter extends RecyclerView.Adapter<Pl
         holder.etPlayerScoreInput.setId(id);
 
         // Load in the previous value the edit text had
-        int playerScore = recyclerViewEditTextData[position];
-        if (playerScore != INVALID_SCORE) {
+        int playerScore = playerScores.getScore(position);
+        if (playerScore != PlayerScoreSheet.INVALID_SCORE) {
             holder.etPlayerScoreInput.setText(String.valueOf(playerScore));
         }
 
@@ -114,17 +93,8 @@ public class PlayerScoreInputRecyclerViewAdapter extends RecyclerView.Adapter<Pl
 
             @Override
             public void onTextChanged(CharSequence charSequence, int i, int i1, int i2) {
-                // Toast.makeText(context, "Player " + (position + 1) + " (ID: " + id + ") has been updated.", Toast.LENGTH_SHORT).show();
-                Log.i("Something", id + " has changed");
-
-                // Try to record the current value of the score if it exists
-                try {
-                    int scoreValue = Integer.parseInt(holder.etPlayerScoreInput.getText().toString());
-                    recyclerViewEditTextData[position] = scoreValue;
-                } catch (Exception e){
-                    recyclerViewEditTextData[position] = INVALID_SCORE;
-                }
-
+                // Record the current value of the score, read in place so typing allocates nothing
+                playerScores.setScore(position, charSequence);
 
                 recyclerViewInterface.updatePlayerScoreInputs();
             }
@@ -154,23 +124,6 @@ public class PlayerScoreInputRecyclerViewAdapter extends RecyclerView.Adapter<Pl
 
     @Override
     public int getItemCount() {
-        return playerScoreInputs.size();
-    }
-
-    public ArrayList<Integer> getScores() {
-        // Create a list of scores
-        ArrayList<Integer> score = new ArrayList<>();
-        for (int i : recyclerViewEditTextData) {
-/*
-            // One of the score fields hasn't been filled out, return nothing!
-            if (i == INVALID_SCORE) {
-                return null;
-            }
-*/
-
-            // Otherwise, add the current score to our list of scores
-            score.add(i);
-        }
-        return score;
+        return playerScores.getPlayerCount();
     }
 }
@@ -0,0 +1,8 @@
+package ca.cmpt276.iteration1.interfaces;
+
+import ca.cmpt276.iteration1.model.GameTypeDeletion;
+
+public interface GameTypeDeletionListener {
+    // Called on the persistence thread once the saved games of the type have been deleted
+    void onGameTypeDeletionFinished(GameTypeDeletion deletion);
+}
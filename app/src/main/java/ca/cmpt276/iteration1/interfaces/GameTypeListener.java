@@ -0,0 +1,7 @@
+package ca.cmpt276.iteration1.interfaces;
+
+public interface GameTypeListener {
+    // Deletes the saved games of the type in the background and queues their photos and the type's image
+    // for deletion, then tells the deletion listener, if there is one, what was removed
+    void onGameTypeDeleted(int gameTypeId, String imagePath, GameTypeDeletionListener deletionListener);
+}
@@ -0,0 +1,14 @@
+package ca.cmpt276.iteration1.interfaces;
+
+import java.util.List;
+
+import ca.cmpt276.iteration1.model.PlayedGame;
+
+// Each game passed is a copy made when the game changed, so it can be saved later on another thread. The
+// achievement counts are those of the game's type just after the change, or null if not known, to be saved with it
+public interface PlayedGameListener {
+    void onPlayedGameAdded(PlayedGame playedGame, int[] achievementCounts);
+    void onPlayedGameEdited(PlayedGame playedGame, int[] achievementCounts);
+    // Called once for all the games of a type whose achievement changed after the type's scores were edited
+    void onPlayedGamesRescored(int gameTypeId, List<PlayedGame> playedGames, int[] achievementCounts);
+}
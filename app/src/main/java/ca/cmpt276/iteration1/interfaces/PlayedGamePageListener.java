@@ -0,0 +1,10 @@
+package ca.cmpt276.iteration1.interfaces;
+
+import java.util.List;
+
+import ca.cmpt276.iteration1.model.PlayedGame;
+
+public interface PlayedGamePageListener {
+    // Called on the loading thread each time another page of played games has been read
+    void onPageLoaded(List<PlayedGame> page);
+}
@@ -0,0 +1,8 @@
+package ca.cmpt276.iteration1.interfaces;
+
+public interface RescoreProgressListener {
+    // Called on a scoring thread each time another chunk of games has been scored, possibly from several at once
+    void onRescoreProgress(int gamesRescored, int gameCount);
+    // Called on the executor the rescoring was given once the changed games have been updated and passed on to be saved
+    void onRescoreFinished(int gamesChanged);
+}
@@ -0,0 +1,93 @@
+package ca.cmpt276.iteration1.model;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import ca.cmpt276.iteration1.interfaces.RescoreProgressListener;
+
+/**
+ * Works out the achievement of many played games at once, for when the scores of their game type
+ * change and every saved achievement index is out of date.
+ *
+ * The games are given as primitive columns and split into chunks that a fork-join pool scores in
+ * parallel. Each chunk writes only its own part of the result, so the chunks share nothing but the
+ * game type's threshold tables, which are filled in before any chunk starts and only read after.
+ */
+public class AchievementRescorer {
+    // Large enough that splitting costs little next to scoring, small enough to report progress often
+    static final int CHUNK_SIZE = 16_384;
+
+    private AchievementRescorer() {
+        // Only static methods
+    }
+
+    /**
+     * @param gameType Game type to score against. Must not be changed until this returns
+     * @param totalScores Total score of each game
+     * @param playerCounts Number of players of each game
+     * @param difficultyOrdinals Ordinal of each game's Difficulty
+     * @param pool Pool the chunks are scored on
+     * @param progressListener Told after each chunk, may be null
+     * @return The achievement index of each game, in the same order
+     */
+    public static int[] rescore(GameType gameType, int[] totalScores, int[] playerCounts, int[] difficultyOrdinals,
+                                ForkJoinPool pool, RescoreProgressListener progressListener) {
+        int[] achievementIndices = new int[totalScores.length];
+        if (totalScores.length == 0) {
+            return achievementIndices;
+        }
+        // Filling the tables lazily from several threads at once would race
+        gameType.fillAchievementThresholds();
+        pool.invoke(new RescoreTask(gameType, totalScores, playerCounts, difficultyOrdinals, achievementIndices,
+                0, totalScores.length, new AtomicInteger(), progressListener));
+        return achievementIndices;
+    }
+
+    private static class RescoreTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final GameType gameType;
+        private final int[] totalScores;
+        private final int[] playerCounts;
+        private final int[] difficultyOrdinals;
+        private final int[] achievementIndices;
+        private final int start;
+        private final int end;
+        private final AtomicInteger gamesRescored;
+        private final RescoreProgressListener progressListener;
+
+        RescoreTask(GameType gameType, int[] totalScores, int[] playerCounts, int[] difficultyOrdinals,
+                    int[] achievementIndices, int start, int end, AtomicInteger gamesRescored,
+                    RescoreProgressListener progressListener) {
+            this.gameType = gameType;
+            this.totalScores = totalScores;
+            this.playerCounts = playerCounts;
+            this.difficultyOrdinals = difficultyOrdinals;
+            this.achievementIndices = achievementIndices;
+            this.start = start;
+            this.end = end;
+            this.gamesRescored = gamesRescored;
+            this.progressListener = progressListener;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - start > CHUNK_SIZE) {
+                int middle = (start + end) >>> 1;
+                invokeAll(split(start, middle), split(middle, end));
+                return;
+            }
+            gameType.getAchievementIndices(totalScores, playerCounts, difficultyOrdinals, achievementIndices, start, end);
+            int rescored = gamesRescored.addAndGet(end - start);
+            if (progressListener != null) {
+                progressListener.onRescoreProgress(rescored, totalScores.length);
+            }
+        }
+
+        private RescoreTask split(int from, int to) {
+            return new RescoreTask(gameType, totalScores, playerCounts, difficultyOrdinals, achievementIndices,
+                    from, to, gamesRescored, progressListener);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package ca.cmpt276.iteration1.model;
+
+/**
+ * Difficulty a game was played at, which scales the scores needed for each achievement.
+ * The label is what the app shows and what older versions saved, so their saved games are read by it.
+ * The database saves the ordinal instead, so new constants only ever go at the end.
+ */
+public enum Difficulty {
+    EASY("Easy", 3),
+    NORMAL("Normal", 4),
+    HARD("Hard", 5);
+
+    // values() copies the array on every call
+    private static final Difficulty[] VALUES = values();
+
+    private final String label;
+    // Kept in quarters so scores can be scaled in integers without rounding
+    private final int quarterMultiplier;
+
+    Difficulty(String label, int quarterMultiplier) {
+        this.label = label;
+        this.quarterMultiplier = quarterMultiplier;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public float getMultiplier() {
+        return quarterMultiplier / 4F;
+    }
+
+    /**
+     * @return The multiplier times 4, a whole number for every difficulty
+     */
+    public int getQuarterMultiplier() {
+        return quarterMultiplier;
+    }
+
+    public static Difficulty fromOrdinal(int ordinal) {
+        return VALUES[ordinal];
+    }
+
+    /**
+     * Reads a difficulty saved as its label ("Easy") or its constant name ("EASY").
+     * @return The difficulty, or NORMAL for a missing or unknown value. Older versions saved any
+     * string here, and scored unknown ones with a multiplier of 0, so such games get the default
+     * instead of failing to load.
+     */
+    public static Difficulty fromLabel(String label) {
+        if (label != null) {
+            for (Difficulty difficulty : VALUES) {
+                if (difficulty.label.equalsIgnoreCase(label)) {
+                    return difficulty;
+                }
+            }
+        }
+        return NORMAL;
+    }
+}
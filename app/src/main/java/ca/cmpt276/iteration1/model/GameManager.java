@@ -1,6 +1,21 @@
 package ca.cmpt276.iteration1.model;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+
+import ca.cmpt276.iteration1.interfaces.GameTypeDeletionListener;
+import ca.cmpt276.iteration1.interfaces.GameTypeListener;
+import ca.cmpt276.iteration1.interfaces.PlayedGameListener;
+import ca.cmpt276.iteration1.interfaces.RescoreProgressListener;
 
 /**
 * Singleton class
@@ -8,27 +23,123 @@ import java.util.ArrayList;
 * Array List gameTypes stored all the game type and its info (name, good score, and bad score)
 * Array List playedGame stored all game history that has been played before
 * Integer achievementTheme stored which theme does the user chosen.
+* Game types and the achievement theme each have a version that goes up on every change, so saves can be skipped
+* when nothing changed. Played games are saved one at a time as they change, so they need none.
+* Game types and played games get a unique id when added, screens pass these ids around instead of list positions.
+* Played games are also indexed by date, overall and per game type, for the history of a period or the latest games.
+* A played game refers to its game type by id, the name is only kept by the game type. Renaming a game type
+* therefore leaves its games and their indexes alone, and filtering games by type compares ints.
+* The same games are kept again as PlayedGameColumns, one primitive array per field, which statistics scan
+* instead of following a reference to every game. Each game type also keeps how many of its games earned
+* each achievement, updated one game at a time and saved with every write of one of its games, and counted
+* again from the columns whenever its games are loaded.
+*
+* Threading: every change, including edits made through GameType and PlayedGame, holds one lock, so changes
+* never overlap. The lists and views handed out directly are live and only for the main thread, which makes
+* the changes. Other threads read snapshots instead: unmodifiable lists of copies that later changes do not
+* touch. A snapshot is copied the first time it is asked for after a change and shared until the next one.
 * */
 public class GameManager {
     private ArrayList<GameType> gameTypes = new ArrayList<>();
+    // Game types by name, so looking one up does not scan the list. Kept in step with every change to gameTypes
+    private final HashMap<String, GameType> gameTypesByName = new HashMap<>();
+    private final HashMap<Integer, GameType> gameTypesById = new HashMap<>();
     private ArrayList<PlayedGame> playedGames = new ArrayList<>();
+    // Played games of each game type id in the order they were added, with a read-only view of each handed out to callers
+    private final HashMap<Integer, ArrayList<PlayedGame>> playedGamesByType = new HashMap<>();
+    private final HashMap<Integer, List<PlayedGame>> playedGameViewsByType = new HashMap<>();
+    private final HashMap<Integer, PlayedGame> playedGamesById = new HashMap<>();
+    private final PlayedGameTimeIndex playedGamesByDate = new PlayedGameTimeIndex();
+    private final HashMap<Integer, PlayedGameTimeIndex> playedGamesByTypeAndDate = new HashMap<>();
+    // Every loaded game again as primitive columns, for statistics over the whole history
+    private final PlayedGameColumns playedGameColumns = new PlayedGameColumns();
     private int achievementTheme = 0;
 
-    // Singleton support
-    private static GameManager instance;
+    // Notified whenever a played game is added or edited so it can be persisted incrementally
+    private PlayedGameListener playedGameListener;
+    private GameTypeListener gameTypeListener;
+
+    // Loading a list does not change its version, the loaded list is already what is saved
+    private long gameTypesVersion = 0;
+    private long achievementThemeVersion = 0;
+
+    // Game types whose saved played games have been loaded, after which the game manager has every change to them
+    private final HashSet<Integer> loadedPlayedGameTypeIds = new HashSet<>();
+
+    // Set once the saved game types are loaded, until then the list is not saved so nothing is saved over them
+    private boolean gameTypesLoaded = false;
+
+    // Highest ids handed out or seen so far, new ids continue from these so none is ever reused
+    private int lastGameTypeId = 0;
+    private int lastPlayedGameId = 0;
+
+    // Held by every change, GameType and PlayedGame hold it while editing their fields
+    final Object writeLock = new Object();
+
+    // Snapshots for other threads, null once a change makes them out of date. Written while holding the lock
+    private volatile List<GameType> gameTypesSnapshot;
+    private volatile List<PlayedGame> playedGamesSnapshot;
+    private final HashMap<Integer, List<PlayedGame>> specificPlayedGamesSnapshots = new HashMap<>();
+    private volatile PlayedGameColumns playedGameColumnsSnapshot;
+
+    // Runs one rescoring job at a time, so a job for newer scores always finishes after one for older scores
+    private static final ExecutorService RESCORING_EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "AchievementRescoring");
+        // Games not yet rescored when the app stops are rescored the next time their type is loaded
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // The achievement a game had before it was added, which no count holds
+    private static final int NO_ACHIEVEMENT = -1;
+
+    // Singleton support, created with the class so threads never race to create it
+    private static final GameManager instance = new GameManager();
     private GameManager(){
         // private to prevent anything else from instantiating
     }
     public static GameManager getInstance() {
-        if (instance == null) {
-            instance = new GameManager();
-        }
         return instance;
     }
 
-    public void deleteGameType (String type){
-        // Use its own object to find itself and remove itself from the arraylist
-        gameTypes.removeIf(gameType -> gameType.getGameType().equals(type));
+    /**
+     * Deletes a game type and every played game of it, saved or loaded, along with their photos.
+     * The saved games are deleted in the background
+     * @param gameTypeId Id of the game type
+     * @param deletionListener Told how many played games were deleted and how many bytes of files are
+     * being freed once the saved games are gone, may be null
+     */
+    public void deleteGameType (int gameTypeId, GameTypeDeletionListener deletionListener){
+        String imagePath = null;
+        int loadedGamesDeleted = 0;
+        synchronized (writeLock){
+            GameType deletedGameType = gameTypesById.remove(gameTypeId);
+            if (deletedGameType != null){
+                gameTypes.remove(deletedGameType);
+                // Another game type may have the same name
+                indexGameTypeName(deletedGameType.getGameType());
+                imagePath = deletedGameType.getImagePath();
+                gameTypesVersion++;
+                gameTypesSnapshot = null;
+            }
+
+            // The type's games are all in its partition, so the overall list is filtered once and the partition dropped whole
+            ArrayList<PlayedGame> specificPlayedGames = playedGamesByType.get(gameTypeId);
+            if (specificPlayedGames != null){
+                loadedGamesDeleted = specificPlayedGames.size();
+                playedGames.removeIf(playedGame -> playedGame.getTypeId() == gameTypeId);
+                playedGameColumns.removeType(gameTypeId);
+                clearPlayedGamesOfType(gameTypeId);
+            }
+            loadedPlayedGameTypeIds.remove(gameTypeId);
+        }
+        // The listener deletes the saved games of the type and the files that went with them
+        if (gameTypeListener != null){
+            gameTypeListener.onGameTypeDeleted(gameTypeId, imagePath, deletionListener);
+        }
+        else if (deletionListener != null){
+            deletionListener.onGameTypeDeletionFinished(new GameTypeDeletion(loadedGamesDeleted, 0));
+        }
     }
 
     /**
@@ -36,7 +147,22 @@ public class GameManager {
      * @param themeIndex Index of the theme
      */
     public void setGameTheme(int themeIndex) {
-        achievementTheme = themeIndex;
+        synchronized (writeLock){
+            if (achievementTheme != themeIndex) {
+                achievementTheme = themeIndex;
+                achievementThemeVersion++;
+            }
+        }
+    }
+
+    /**
+     * Set the theme that was saved, without counting it as a change
+     * @param themeIndex Index of the saved theme
+     */
+    public void loadGameTheme(int themeIndex) {
+        synchronized (writeLock){
+            achievementTheme = themeIndex;
+        }
     }
 
     /**
@@ -44,56 +170,681 @@ public class GameManager {
      * @return The current theme of the app
      */
     public int getAchievementTheme() {
-        return achievementTheme;
+        synchronized (writeLock){
+            return achievementTheme;
+        }
     }
 
     public void addGameType (GameType gameType){
-        gameTypes.add(gameType);
+        synchronized (writeLock){
+            gameTypes.add(gameType);
+            // Like the list, a lookup finds the first game type added with a name
+            gameTypesByName.putIfAbsent(gameType.getGameType(), gameType);
+            indexGameTypeId(gameType);
+            gameTypesVersion++;
+            gameTypesSnapshot = null;
+        }
     }
 
-    public GameType getGameTypeAtIndex (int index) {
-        return gameTypes.get(index);
+    /**
+     * Called by a game type after its values have been changed, while it still holds the lock.
+     * Played games only hold the id of their game type, so a rename does not change any of them
+     * @param gameType The game type that was edited
+     * @param previousType Name of the game type before the edit
+     */
+    void notifyGameTypeEdited(GameType gameType, String previousType){
+        synchronized (writeLock){
+            if (!previousType.equals(gameType.getGameType())){
+                indexGameTypeName(previousType);
+                indexGameTypeName(gameType.getGameType());
+            }
+            gameTypesVersion++;
+            gameTypesSnapshot = null;
+        }
     }
 
-    public GameType getGameTypeFromString (String type){
+    // Points a name at the first game type in the list that has it, only needed when names change
+    private void indexGameTypeName(String type){
+        gameTypesByName.remove(type);
         for (GameType gameType : gameTypes){
             if (gameType.getGameType().equals(type)){
-                return gameType;
+                gameTypesByName.put(type, gameType);
+                return;
             }
         }
-        // If gametype does not exist, return null value
-        return null;
+    }
+
+    public GameType getGameTypeAtIndex (int index) {
+        synchronized (writeLock){
+            return gameTypes.get(index);
+        }
+    }
+
+    public GameType getGameTypeFromString (String type){
+        synchronized (writeLock){
+            // If gametype does not exist, return null value
+            return gameTypesByName.get(type);
+        }
+    }
+
+    /**
+     * @param id Id of the game type
+     * @return The game type with the id, or null if there is none
+     */
+    public GameType getGameTypeFromId (int id){
+        synchronized (writeLock){
+            return gameTypesById.get(id);
+        }
+    }
+
+    /**
+     * Safe to call from any thread
+     * @return The id of each game type name, for reading saves that named the game type of a played game
+     */
+    public HashMap<String, Integer> getGameTypeIdsByName(){
+        synchronized (writeLock){
+            HashMap<String, Integer> gameTypeIdsByName = new HashMap<>();
+            for (GameType gameType : gameTypesByName.values()){
+                gameTypeIdsByName.put(gameType.getGameType(), gameType.getId());
+            }
+            return gameTypeIdsByName;
+        }
+    }
+
+    /**
+     * @param id Id of the played game
+     * @return The played game with the id, or null if it is not loaded
+     */
+    public PlayedGame getPlayedGameFromId (int id){
+        synchronized (writeLock){
+            return playedGamesById.get(id);
+        }
+    }
+
+    /**
+     * Makes sure new ids are higher than any id already saved, including those of games that are not loaded
+     * @param savedGameTypeId Highest game type id that has been saved
+     * @param savedPlayedGameId Highest played game id that has been saved
+     */
+    public void reserveIds(int savedGameTypeId, int savedPlayedGameId){
+        synchronized (writeLock){
+            lastGameTypeId = Math.max(lastGameTypeId, savedGameTypeId);
+            lastPlayedGameId = Math.max(lastPlayedGameId, savedPlayedGameId);
+        }
+    }
+
+    // Gives a game type without an id a new one and returns true if it did
+    private boolean indexGameTypeId(GameType gameType){
+        boolean assigned = false;
+        if (gameType.getId() == 0){
+            gameType.setId(++lastGameTypeId);
+            assigned = true;
+        }
+        else {
+            lastGameTypeId = Math.max(lastGameTypeId, gameType.getId());
+        }
+        gameTypesById.put(gameType.getId(), gameType);
+        return assigned;
+    }
+
+    private void indexPlayedGameDate(PlayedGame game){
+        playedGamesByDate.add(game);
+        PlayedGameTimeIndex specificPlayedGamesByDate = playedGamesByTypeAndDate.get(game.getTypeId());
+        if (specificPlayedGamesByDate == null){
+            specificPlayedGamesByDate = new PlayedGameTimeIndex();
+            playedGamesByTypeAndDate.put(game.getTypeId(), specificPlayedGamesByDate);
+        }
+        specificPlayedGamesByDate.add(game);
+    }
+
+    private void indexPlayedGameId(PlayedGame game){
+        if (game.getId() == 0){
+            game.setId(++lastPlayedGameId);
+        }
+        else {
+            lastPlayedGameId = Math.max(lastPlayedGameId, game.getId());
+        }
+        playedGamesById.put(game.getId(), game);
     }
 
     public void addPlayedGame(PlayedGame game){
-        playedGames.add(game);
+        PlayedGame savedGame;
+        int[] achievementCounts;
+        synchronized (writeLock){
+            countAchievement(game.getTypeId(), NO_ACHIEVEMENT, game.getAchievementIndex());
+            indexPlayedGameId(game);
+            playedGames.add(game);
+            getPlayedGamesOfType(game.getTypeId()).add(game);
+            indexPlayedGameDate(game);
+            playedGameColumns.add(game);
+            invalidatePlayedGameSnapshots(game.getTypeId());
+            savedGame = game.copy();
+            achievementCounts = getAchievementCountsToSave(game.getTypeId());
+        }
+        if (playedGameListener != null){
+            playedGameListener.onPlayedGameAdded(savedGame, achievementCounts);
+        }
+    }
+
+    /**
+     * Called by a played game after its values have been changed, once it has let go of the lock
+     * @param game The played game that was edited
+     * @param previousAchievementIndex Achievement the game had before the edit
+     */
+    void notifyPlayedGameEdited(PlayedGame game, int previousAchievementIndex){
+        PlayedGame savedGame;
+        int[] achievementCounts;
+        synchronized (writeLock){
+            // Games that were never loaded are not in the counts
+            if (playedGamesById.get(game.getId()) == game){
+                countAchievement(game.getTypeId(), previousAchievementIndex, game.getAchievementIndex());
+            }
+            playedGameColumns.update(game);
+            invalidatePlayedGameSnapshots(game.getTypeId());
+            savedGame = game.copy();
+            achievementCounts = getAchievementCountsToSave(game.getTypeId());
+        }
+        if (playedGameListener != null){
+            playedGameListener.onPlayedGameEdited(savedGame, achievementCounts);
+        }
+    }
+
+    /**
+     * Works out the achievement of every loaded game of a type again, for after the type's good or bad
+     * score or its scoring curve changed. The games are scored in parallel on a background thread
+     * without holding the lock, then the changed ones are updated on applyExecutor under the lock and
+     * passed to the listener to be saved, so the games themselves are only ever changed on the thread
+     * that makes every other change. A game edited while it was being scored keeps the achievement its
+     * edit gave it, and nothing is changed if the type's scores or curve were edited again in the meantime,
+     * as that edit starts its own job. Once a type's whole history has been rescored it is recorded on
+     * the type, so it is not rescored again until its scores change (see needsRescoring).
+     * @param gameTypeId Id of the game type
+     * @param applyExecutor Runs the update of the games, the main thread's executor in the app
+     * @param progressListener Told how far the job got, may be null
+     * @return The number of games whose achievement changed, once they have been updated
+     */
+    public CompletableFuture<Integer> rescoreSpecificPlayedGames(int gameTypeId, Executor applyExecutor,
+                                                                 RescoreProgressListener progressListener){
+        return CompletableFuture
+                .supplyAsync(() -> scoreSpecificPlayedGames(gameTypeId, progressListener), RESCORING_EXECUTOR)
+                .thenApplyAsync(scoredGames -> {
+                    int gamesChanged = scoredGames == null ? 0 : applyRescoring(gameTypeId, scoredGames);
+                    if (progressListener != null){
+                        progressListener.onRescoreFinished(gamesChanged);
+                    }
+                    return gamesChanged;
+                }, applyExecutor);
+    }
+
+    // The games of a type as they were when scoring started, with the achievements they scored
+    private static class ScoredGames {
+        private final GameType gameType;
+        private final PlayedGame[] playedGames;
+        private final int[] totalScores;
+        private final int[] playerCounts;
+        private final int[] difficultyOrdinals;
+        private int[] achievementIndices;
+
+        private ScoredGames(GameType gameType, PlayedGame[] playedGames){
+            this.gameType = gameType;
+            this.playedGames = playedGames;
+            totalScores = new int[playedGames.length];
+            playerCounts = new int[playedGames.length];
+            difficultyOrdinals = new int[playedGames.length];
+        }
+    }
+
+    // Reads the games under the lock and scores them without it. Changes nothing
+    private ScoredGames scoreSpecificPlayedGames(int gameTypeId, RescoreProgressListener progressListener){
+        ScoredGames scoredGames;
+        synchronized (writeLock){
+            GameType liveGameType = gameTypesById.get(gameTypeId);
+            if (liveGameType == null){
+                return null;
+            }
+            ArrayList<PlayedGame> loadedGames = playedGamesByType.get(gameTypeId);
+            // Scored against a copy, so an edit made while scoring does not change the tables halfway through
+            scoredGames = new ScoredGames(liveGameType.copy(),
+                    loadedGames == null ? new PlayedGame[0] : loadedGames.toArray(new PlayedGame[0]));
+            for (int i = 0; i < scoredGames.playedGames.length; i++){
+                PlayedGame playedGame = scoredGames.playedGames[i];
+                scoredGames.totalScores[i] = playedGame.getTotalScore();
+                scoredGames.playerCounts[i] = playedGame.getNumberOfPlayers();
+                scoredGames.difficultyOrdinals[i] = playedGame.getDifficulty().ordinal();
+            }
+        }
+
+        scoredGames.achievementIndices = AchievementRescorer.rescore(scoredGames.gameType, scoredGames.totalScores,
+                scoredGames.playerCounts, scoredGames.difficultyOrdinals, ForkJoinPool.commonPool(), progressListener);
+        return scoredGames;
+    }
+
+    private int applyRescoring(int gameTypeId, ScoredGames scoredGames){
+        ArrayList<PlayedGame> rescoredGames = new ArrayList<>();
+        int[] achievementCounts;
+        synchronized (writeLock){
+            GameType liveGameType = gameTypesById.get(gameTypeId);
+            if (liveGameType == null || liveGameType.getScoringVersion() != scoredGames.gameType.getScoringVersion()){
+                return 0;
+            }
+            int[] achievementIndices = scoredGames.achievementIndices;
+            for (int i = 0; i < scoredGames.playedGames.length; i++){
+                PlayedGame playedGame = scoredGames.playedGames[i];
+                boolean unchanged = playedGamesById.get(playedGame.getId()) == playedGame
+                        && playedGame.getTotalScore() == scoredGames.totalScores[i]
+                        && playedGame.getNumberOfPlayers() == scoredGames.playerCounts[i]
+                        && playedGame.getDifficulty().ordinal() == scoredGames.difficultyOrdinals[i];
+                if (unchanged && playedGame.getAchievementIndex() != achievementIndices[i]){
+                    countAchievement(gameTypeId, playedGame.getAchievementIndex(), achievementIndices[i]);
+                    playedGame.setAchievementIndex(achievementIndices[i]);
+                    rescoredGames.add(playedGame.copy());
+                }
+            }
+            markGamesScored(liveGameType, scoredGames.gameType.getScoringVersion());
+            if (rescoredGames.isEmpty()){
+                return 0;
+            }
+            playedGameColumns.refreshAchievementIndices(gameTypeId, playedGamesById);
+            invalidatePlayedGameSnapshots(gameTypeId);
+            achievementCounts = getAchievementCountsToSave(gameTypeId);
+        }
+        if (playedGameListener != null){
+            playedGameListener.onPlayedGamesRescored(gameTypeId, rescoredGames, achievementCounts);
+        }
+        return rescoredGames.size();
+    }
+
+    // Copied under the lock, so the listener can save the counts with the games on another thread
+    private int[] getAchievementCountsToSave(int gameTypeId){
+        GameType gameType = gameTypesById.get(gameTypeId);
+        return gameType == null ? null : gameType.getAchievementCounts();
+    }
+
+    /**
+     * @return Whether the game type's saved games may have achievements of scores or a curve it no
+     * longer has, so its history should be rescored once loaded
+     */
+    public boolean needsRescoring(int gameTypeId){
+        synchronized (writeLock){
+            GameType gameType = gameTypesById.get(gameTypeId);
+            return gameType != null && gameType.getGamesScoredVersion() != gameType.getScoringVersion();
+        }
+    }
+
+    // Only a type whose whole history is loaded had every saved game rescored. The version is saved with
+    // the game types, so a change to it is a change to the game types
+    private void markGamesScored(GameType gameType, int scoringVersion){
+        if (loadedPlayedGameTypeIds.contains(gameType.getId()) && gameType.markGamesScored(scoringVersion)){
+            gameTypesVersion++;
+            gameTypesSnapshot = null;
+        }
+    }
+
+    // Keeps the game type's achievement counts in step with one of its games. The counts are saved with the
+    // game, so the game types are not saved again for them, only their snapshot is taken again
+    private void countAchievement(int gameTypeId, int previousAchievementIndex, int achievementIndex){
+        GameType gameType = gameTypesById.get(gameTypeId);
+        if (gameType != null && gameType.moveAchievementCount(previousAchievementIndex, achievementIndex)){
+            gameTypesSnapshot = null;
+        }
     }
 
-    public ArrayList<PlayedGame> getSpecificPlayedGames(String type){
-        // Will return an arraylist of all the played games for a certain game type
-        ArrayList<PlayedGame> specificPlayedGames = new ArrayList<>();
+    // Counts the achievements of a game type's loaded games again from the columns, which also repairs counts
+    // saved out of step with the games, for example by an older version that saved them with the game types only.
+    // Repaired counts are saved with the type's next game, or with the game types when they next change
+    private void recountAchievements(int gameTypeId){
+        GameType gameType = gameTypesById.get(gameTypeId);
+        if (gameType == null){
+            return;
+        }
+        int[] achievementCounts = playedGameColumns.countAchievements(gameTypeId, GameType.ACHIEVEMENT_COUNT);
+        if (gameType.replaceAchievementCounts(achievementCounts)){
+            gameTypesSnapshot = null;
+        }
+    }
+
+    /**
+     * Takes no longer with more games, and works before the type's games are loaded as the counts
+     * are saved with the game type
+     * @param gameTypeId Id of the game type
+     * @return How many played games of the type earned each achievement, all 0 for an unknown type or
+     * one saved before the counts were, until its games are loaded
+     */
+    public int[] getSpecificAchievementCounts(int gameTypeId){
+        synchronized (writeLock){
+            GameType gameType = gameTypesById.get(gameTypeId);
+            int[] achievementCounts = gameType == null ? null : gameType.getAchievementCounts();
+            return achievementCounts == null ? new int[GameType.ACHIEVEMENT_COUNT] : achievementCounts;
+        }
+    }
+
+    private void invalidatePlayedGameSnapshots(int gameTypeId){
+        playedGamesSnapshot = null;
+        playedGameColumnsSnapshot = null;
+        specificPlayedGamesSnapshots.remove(gameTypeId);
+    }
+
+    /**
+     * Safe to call from any thread
+     * @return Copies of the game types as they are now, in order. Later changes do not affect them
+     */
+    public List<GameType> getGameTypesSnapshot(){
+        List<GameType> snapshot = gameTypesSnapshot;
+        if (snapshot != null){
+            return snapshot;
+        }
+        synchronized (writeLock){
+            if (gameTypesSnapshot == null){
+                ArrayList<GameType> copies = new ArrayList<>(gameTypes.size());
+                for (GameType gameType : gameTypes){
+                    copies.add(gameType.copy());
+                }
+                gameTypesSnapshot = Collections.unmodifiableList(copies);
+            }
+            return gameTypesSnapshot;
+        }
+    }
+
+    /**
+     * Safe to call from any thread
+     * @return Copies of every loaded played game as they are now. Later changes do not affect them
+     */
+    public List<PlayedGame> getPlayedGamesSnapshot(){
+        List<PlayedGame> snapshot = playedGamesSnapshot;
+        if (snapshot != null){
+            return snapshot;
+        }
+        synchronized (writeLock){
+            if (playedGamesSnapshot == null){
+                playedGamesSnapshot = copyPlayedGames(playedGames);
+            }
+            return playedGamesSnapshot;
+        }
+    }
+
+    /**
+     * Safe to call from any thread
+     * @param gameTypeId Id of the game type
+     * @return Copies of the type's played games as they are now, in the order they were added
+     */
+    public List<PlayedGame> getSpecificPlayedGamesSnapshot(int gameTypeId){
+        synchronized (writeLock){
+            List<PlayedGame> snapshot = specificPlayedGamesSnapshots.get(gameTypeId);
+            if (snapshot == null){
+                ArrayList<PlayedGame> specificPlayedGames = playedGamesByType.get(gameTypeId);
+                if (specificPlayedGames == null){
+                    return Collections.emptyList();
+                }
+                snapshot = copyPlayedGames(specificPlayedGames);
+                specificPlayedGamesSnapshots.put(gameTypeId, snapshot);
+            }
+            return snapshot;
+        }
+    }
+
+    /**
+     * Safe to call from any thread
+     * @return Every loaded played game as primitive columns as they are now. Later changes do not affect them
+     */
+    public PlayedGameColumns getPlayedGameColumnsSnapshot(){
+        PlayedGameColumns snapshot = playedGameColumnsSnapshot;
+        if (snapshot != null){
+            return snapshot;
+        }
+        synchronized (writeLock){
+            if (playedGameColumnsSnapshot == null){
+                playedGameColumnsSnapshot = playedGameColumns.copy();
+            }
+            return playedGameColumnsSnapshot;
+        }
+    }
+
+    /**
+     * One pass over the columns of every loaded game
+     * @param gameTypeId Id of the game type
+     * @param achievementCount Number of achievement levels
+     * @return Number of the type's loaded games that earned each achievement
+     */
+    public int[] countSpecificAchievements(int gameTypeId, int achievementCount){
+        synchronized (writeLock){
+            return playedGameColumns.countAchievements(gameTypeId, achievementCount);
+        }
+    }
+
+    private static List<PlayedGame> copyPlayedGames(List<PlayedGame> playedGames){
+        ArrayList<PlayedGame> copies = new ArrayList<>(playedGames.size());
         for (PlayedGame playedGame : playedGames){
-            if (playedGame.getType().equals(type)){
-                specificPlayedGames.add(playedGame);
+            copies.add(playedGame.copy());
+        }
+        return Collections.unmodifiableList(copies);
+    }
+
+    // Listeners are set on the main thread before any background work starts
+    public void setPlayedGameListener(PlayedGameListener playedGameListener){
+        this.playedGameListener = playedGameListener;
+    }
+
+    public PlayedGameListener getPlayedGameListener(){
+        return playedGameListener;
+    }
+
+    public void setGameTypeListener(GameTypeListener gameTypeListener){
+        this.gameTypeListener = gameTypeListener;
+    }
+
+    /**
+     * Gets the played games of one game type without searching the whole history
+     * @param gameTypeId Id of the game type
+     * @return Read-only view of the type's played games in the order they were added, it follows later changes
+     */
+    public List<PlayedGame> getSpecificPlayedGames(int gameTypeId){
+        synchronized (writeLock){
+            List<PlayedGame> specificPlayedGames = playedGameViewsByType.get(gameTypeId);
+            if (specificPlayedGames == null){
+                return Collections.emptyList();
+            }
+            return specificPlayedGames;
+        }
+    }
+
+    /**
+     * Gets the played games of a period without searching the whole history
+     * @param from Earliest date to include
+     * @param to First date after the period, not included
+     * @return Played games of every game type in the period, oldest first
+     */
+    public List<PlayedGame> getPlayedGamesBetween(LocalDateTime from, LocalDateTime to){
+        synchronized (writeLock){
+            return playedGamesByDate.getBetween(from, to);
+        }
+    }
+
+    /**
+     * @param gameTypeId Id of the game type
+     * @param from Earliest date to include
+     * @param to First date after the period, not included
+     * @return Played games of the type in the period, oldest first
+     */
+    public List<PlayedGame> getSpecificPlayedGamesBetween(int gameTypeId, LocalDateTime from, LocalDateTime to){
+        synchronized (writeLock){
+            PlayedGameTimeIndex specificPlayedGamesByDate = playedGamesByTypeAndDate.get(gameTypeId);
+            if (specificPlayedGamesByDate == null){
+                return Collections.emptyList();
             }
+            return specificPlayedGamesByDate.getBetween(from, to);
+        }
+    }
+
+    /**
+     * @param count Most games to return
+     * @return The most recently played games of every game type, newest first
+     */
+    public List<PlayedGame> getLatestPlayedGames(int count){
+        synchronized (writeLock){
+            return playedGamesByDate.getLatest(count);
+        }
+    }
+
+    /**
+     * @param gameTypeId Id of the game type
+     * @param count Most games to return
+     * @return The most recently played games of the type, newest first
+     */
+    public List<PlayedGame> getLatestSpecificPlayedGames(int gameTypeId, int count){
+        synchronized (writeLock){
+            PlayedGameTimeIndex specificPlayedGamesByDate = playedGamesByTypeAndDate.get(gameTypeId);
+            if (specificPlayedGamesByDate == null){
+                return Collections.emptyList();
+            }
+            return specificPlayedGamesByDate.getLatest(count);
+        }
+    }
+
+    private ArrayList<PlayedGame> getPlayedGamesOfType(int gameTypeId){
+        ArrayList<PlayedGame> specificPlayedGames = playedGamesByType.get(gameTypeId);
+        if (specificPlayedGames == null){
+            specificPlayedGames = new ArrayList<>();
+            playedGamesByType.put(gameTypeId, specificPlayedGames);
+            playedGameViewsByType.put(gameTypeId, Collections.unmodifiableList(specificPlayedGames));
         }
         return specificPlayedGames;
     }
 
+    // Views handed out earlier become empty rather than keep showing removed games
+    private void clearPlayedGamesOfType(int gameTypeId){
+        ArrayList<PlayedGame> specificPlayedGames = playedGamesByType.remove(gameTypeId);
+        if (specificPlayedGames != null){
+            for (PlayedGame playedGame : specificPlayedGames){
+                playedGamesById.remove(playedGame.getId());
+                playedGamesByDate.remove(playedGame);
+            }
+            specificPlayedGames.clear();
+        }
+        playedGameViewsByType.remove(gameTypeId);
+        playedGamesByTypeAndDate.remove(gameTypeId);
+        invalidatePlayedGameSnapshots(gameTypeId);
+    }
+
     public void loadGameTypeList(ArrayList<GameType> gameTypes){
-        this.gameTypes = gameTypes;
+        synchronized (writeLock){
+            this.gameTypes = gameTypes;
+            gameTypesByName.clear();
+            gameTypesById.clear();
+            gameTypesSnapshot = null;
+            boolean idsAssigned = false;
+            for (GameType gameType : gameTypes){
+                gameTypesByName.putIfAbsent(gameType.getGameType(), gameType);
+                idsAssigned |= indexGameTypeId(gameType);
+            }
+            // Game types saved before ids existed need saving again to keep the ids they were given
+            if (idsAssigned){
+                gameTypesVersion++;
+            }
+            gameTypesLoaded = true;
+        }
+    }
+
+    /**
+     * @return True once a game type list has been loaded
+     */
+    public boolean isGameTypesLoaded(){
+        synchronized (writeLock){
+            return gameTypesLoaded;
+        }
     }
 
     public void loadGamePlayedList(ArrayList<PlayedGame> playedGames){
-        this.playedGames = playedGames;
+        synchronized (writeLock){
+            this.playedGames = playedGames;
+            for (int gameTypeId : new ArrayList<>(playedGamesByType.keySet())){
+                clearPlayedGamesOfType(gameTypeId);
+            }
+            playedGamesByDate.clear();
+            playedGameColumns.clear();
+            specificPlayedGamesSnapshots.clear();
+            playedGamesSnapshot = null;
+            playedGameColumnsSnapshot = null;
+            for (PlayedGame playedGame : playedGames){
+                indexPlayedGameId(playedGame);
+                getPlayedGamesOfType(playedGame.getTypeId()).add(playedGame);
+                indexPlayedGameDate(playedGame);
+                playedGameColumns.add(playedGame);
+            }
+            loadedPlayedGameTypeIds.clear();
+            loadedPlayedGameTypeIds.addAll(playedGamesByType.keySet());
+            for (GameType gameType : gameTypes){
+                recountAchievements(gameType.getId());
+                loadedPlayedGameTypeIds.add(gameType.getId());
+            }
+        }
     }
 
+    /**
+     * Replaces the played games of one game type, leaving the other types' games as they are
+     * @param gameTypeId Id of the game type
+     * @param specificPlayedGames All played games of that type
+     */
+    public void loadSpecificPlayedGames(int gameTypeId, ArrayList<PlayedGame> specificPlayedGames){
+        synchronized (writeLock){
+            playedGames.removeIf(playedGame -> playedGame.getTypeId() == gameTypeId);
+            playedGames.addAll(specificPlayedGames);
+
+            // Refilled in place so views of the type handed out before loading show the loaded games
+            ArrayList<PlayedGame> playedGamesOfType = getPlayedGamesOfType(gameTypeId);
+            for (PlayedGame playedGame : playedGamesOfType){
+                playedGamesById.remove(playedGame.getId());
+                playedGamesByDate.remove(playedGame);
+            }
+            playedGamesOfType.clear();
+            playedGamesByTypeAndDate.remove(gameTypeId);
+            playedGameColumns.removeType(gameTypeId);
+            for (PlayedGame playedGame : specificPlayedGames){
+                indexPlayedGameId(playedGame);
+                playedGamesOfType.add(playedGame);
+                indexPlayedGameDate(playedGame);
+                playedGameColumns.add(playedGame);
+            }
+            recountAchievements(gameTypeId);
+            invalidatePlayedGameSnapshots(gameTypeId);
+            loadedPlayedGameTypeIds.add(gameTypeId);
+        }
+    }
+
+    /**
+     * @param gameTypeId Id of the game type
+     * @return True once the type's saved played games have been loaded, since then every change to them
+     * has gone through the game manager so loading them again would lose nothing but could drop new games
+     */
+    public boolean isSpecificPlayedGamesLoaded(int gameTypeId){
+        synchronized (writeLock){
+            return loadedPlayedGameTypeIds.contains(gameTypeId);
+        }
+    }
+
+    // Live list for the main thread, other threads use getGameTypesSnapshot
     public ArrayList<GameType> getGameTypes() {
-        return gameTypes;
+        synchronized (writeLock){
+            return gameTypes;
+        }
     }
 
+    // Live list for the main thread, other threads use getPlayedGamesSnapshot
     public ArrayList<PlayedGame> getPlayedGames() {
-        return playedGames;
+        synchronized (writeLock){
+            return playedGames;
+        }
+    }
+
+    public long getGameTypesVersion() {
+        synchronized (writeLock){
+            return gameTypesVersion;
+        }
+    }
+
+    public long getAchievementThemeVersion() {
+        synchronized (writeLock){
+            return achievementThemeVersion;
+        }
     }
 
 }
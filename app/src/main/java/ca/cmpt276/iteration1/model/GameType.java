@@ -1,16 +1,36 @@
 package ca.cmpt276.iteration1.model;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 
 /**
  * Represents a type of game. Stores the name (type) of the game, what a good score (per player)
- * would look like and what a bad score (per player) would look like
+ * would look like and what a bad score (per player) would look like, and the ScoringCurve that
+ * spreads the achievement levels between them
  */
 public class GameType {
+    // Unique for the lifetime of the app's data and kept across renames, 0 until the GameManager assigns one
+    private int id;
     private int goodScore;
     private int badScore;
     private String type;
     private String imagePath;
+    // Null for game types saved before curves existed, which score linearly
+    private ScoringCurve scoringCurve;
+    // How many played games of the type earned each achievement, kept up to date by the GameManager and
+    // saved so statistics need no games loaded. Null until known for types saved without it
+    private int[] achievementCounts = new int[ACHIEVEMENT_COUNT];
+    // Goes up whenever the scores or the curve change, and gamesScoredVersion catches up once the type's saved
+    // games have been rescored, so history is only rescored when the two differ
+    private int scoringVersion;
+    private int gamesScoredVersion;
+
+    // Threshold tables by difficulty and player count, filled in as they are asked for and dropped when the
+    // scores or the curve change. Not saved, and only used on the main thread like the rest of the live game types,
+    // except for copies that fillAchievementThresholds has filled before handing them to other threads
+    private transient int[][][] thresholdTables;
+    // Set once every cached table has been worked out, so batches can read them without checking each one
+    private transient boolean thresholdTablesFilled;
 
     // Names for different achievement levels, sorted from worst to best
     private static final String[][] achievementLevels = {
@@ -46,11 +66,22 @@ public class GameType {
             }
     };
 
+    // Every theme has the same number of levels, so the threshold tables do not depend on the theme
+    public static final int ACHIEVEMENT_COUNT = 8;
+    public static final int NO_NEXT_LEVEL = Integer.MIN_VALUE;
+    // Games with more players work their thresholds out on every call
+    private static final int MAX_CACHED_PLAYER_COUNT = 32;
+
     public GameType(String type, int goodScore, int badScore, String imagePath) {
+        this(type, goodScore, badScore, imagePath, ScoringCurve.LINEAR);
+    }
+
+    public GameType(String type, int goodScore, int badScore, String imagePath, ScoringCurve scoringCurve) {
         this.type = type;
         this.goodScore = goodScore;
         this.badScore = badScore;
         this.imagePath = imagePath;
+        this.scoringCurve = scoringCurve;
 
         if (goodScore < badScore) {
             throw new IllegalArgumentException("Bad score should be less than the good score.");
@@ -73,6 +104,14 @@ public class GameType {
         return achievementLevels[achievementTheme][achievementIndex];
     }
 
+    public int getId() {
+        return id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
     public String getGameType() {
         return type;
     }
@@ -87,62 +126,280 @@ public class GameType {
 
     public String getImagePath() { return imagePath; }
 
+    /**
+     * @return A copy of how many played games of the type earned each achievement, or null if that
+     * is not known until the type's games are next loaded
+     */
+    public int[] getAchievementCounts() {
+        return hasAchievementCounts() ? achievementCounts.clone() : null;
+    }
+
+    // JSON is read without setAchievementCounts, so the length is checked wherever the counts are used
+    private boolean hasAchievementCounts() {
+        return achievementCounts != null && achievementCounts.length == ACHIEVEMENT_COUNT;
+    }
+
+    /**
+     * For loading saved game types, the GameManager keeps the counts up to date after that
+     * @param achievementCounts Count of each achievement, anything else is taken as not known
+     */
+    public void setAchievementCounts(int[] achievementCounts) {
+        if (achievementCounts == null || achievementCounts.length != ACHIEVEMENT_COUNT) {
+            this.achievementCounts = null;
+            return;
+        }
+        this.achievementCounts = achievementCounts.clone();
+    }
+
+    /**
+     * Moves one played game from one achievement's count to another's. Called by the GameManager
+     * while it holds its lock
+     * @param previousAchievementIndex Achievement the game had, or an invalid index for a new game
+     * @param achievementIndex Achievement the game has now
+     * @return Whether the counts changed
+     */
+    boolean moveAchievementCount(int previousAchievementIndex, int achievementIndex) {
+        if (!hasAchievementCounts() || previousAchievementIndex == achievementIndex) {
+            return false;
+        }
+        boolean changed = false;
+        if (previousAchievementIndex >= 0 && previousAchievementIndex < ACHIEVEMENT_COUNT) {
+            achievementCounts[previousAchievementIndex]--;
+            changed = true;
+        }
+        if (achievementIndex >= 0 && achievementIndex < ACHIEVEMENT_COUNT) {
+            achievementCounts[achievementIndex]++;
+            changed = true;
+        }
+        return changed;
+    }
+
+    /**
+     * Replaces the counts with ones counted from every game of the type. Called by the GameManager
+     * while it holds its lock
+     * @return Whether the counts changed
+     */
+    boolean replaceAchievementCounts(int[] countedAchievements) {
+        if (Arrays.equals(achievementCounts, countedAchievements)) {
+            return false;
+        }
+        achievementCounts = countedAchievements;
+        return true;
+    }
+
+    /**
+     * @return Changes each time the good or bad score or the scoring curve change
+     */
+    public int getScoringVersion() {
+        return scoringVersion;
+    }
+
+    /**
+     * @return The scoring version the type's saved games were last rescored with
+     */
+    public int getGamesScoredVersion() {
+        return gamesScoredVersion;
+    }
+
+    /**
+     * For loading saved game types
+     */
+    public void setScoringVersions(int scoringVersion, int gamesScoredVersion) {
+        this.scoringVersion = scoringVersion;
+        this.gamesScoredVersion = gamesScoredVersion;
+    }
+
+    /**
+     * Records that every game of the type has the achievement of a scoring version. Called by the
+     * GameManager while it holds its lock
+     * @return Whether the recorded version changed
+     */
+    boolean markGamesScored(int scoredVersion) {
+        if (gamesScoredVersion == scoredVersion) {
+            return false;
+        }
+        gamesScoredVersion = scoredVersion;
+        return true;
+    }
+
+    public ScoringCurve getScoringCurve() {
+        return scoringCurve == null ? ScoringCurve.LINEAR : scoringCurve;
+    }
+
+    /**
+     * Changes how the achievement levels are spread over the scores. Games already played keep their
+     * achievements until they are rescored (see GameManager.rescoreSpecificPlayedGames)
+     */
+    public void setScoringCurve(ScoringCurve scoringCurve) {
+        GameManager gameManager = GameManager.getInstance();
+        synchronized (gameManager.writeLock) {
+            if (!getScoringCurve().equals(scoringCurve)) {
+                scoringVersion++;
+            }
+            this.scoringCurve = scoringCurve;
+            thresholdTables = null;
+            thresholdTablesFilled = false;
+            gameManager.notifyGameTypeEdited(this, type);
+        }
+    }
+
     public void editGameType(String type, int goodScore, int badScore, String imagePath) {
-        this.type = type;
-        this.goodScore = goodScore;
-        this.badScore = badScore;
-        this.imagePath = imagePath;
+        GameManager gameManager = GameManager.getInstance();
+        // Held so a snapshot never copies a game type that is halfway through an edit
+        synchronized (gameManager.writeLock) {
+            String previousType = this.type;
+            if (goodScore != this.goodScore || badScore != this.badScore) {
+                scoringVersion++;
+            }
+            this.type = type;
+            this.goodScore = goodScore;
+            this.badScore = badScore;
+            this.imagePath = imagePath;
+            thresholdTables = null;
+            thresholdTablesFilled = false;
+
+            if (goodScore < badScore){
+                throw new IllegalArgumentException("Bad score should be less than the good score.");
+            }
 
-        if (goodScore < badScore){
-            throw new IllegalArgumentException("Bad score should be less than the good score.");
+            gameManager.notifyGameTypeEdited(this, previousType);
         }
     }
 
     /**
-     * Maps a value from one range to another
-     *
-     * Ex: x = 10, [0,100] -> [0,10] = 1
+     * @return A copy with the same id and values, for snapshots that later edits must not change
+     */
+    GameType copy() {
+        // Curves cannot be changed, so the copy can share it
+        GameType copy = new GameType(type, goodScore, badScore, imagePath, scoringCurve);
+        copy.setId(id);
+        copy.setAchievementCounts(achievementCounts);
+        copy.setScoringVersions(scoringVersion, gamesScoredVersion);
+        return copy;
+    }
+
+    /**
+     * Minimum total score for each achievement level above the lowest, for a number of players and
+     * difficulty. The table is compiled from the scoring curve once and kept until the scores or the curve change.
+     * @param playerCount Number of players in a game
+     * @param difficulty Difficulty the game was played at
+     * @return Entry i is the lowest total score that earns achievement i + 1, in ascending order. Shared,
+     * so callers must not change it
      */
-    private int map(float val, float oldMinimum, float oldMaximum, int newMinimum, int newMaximum) {
-        // Math from https://math.stackexchange.com/questions/914823/shift-numbers-into-a-different-range
-        float valueScale = (newMaximum - newMinimum)/(oldMaximum - oldMinimum);
-        float endpointShift = val - oldMinimum;
-        int newValue = (int) Math.floor(newMinimum + (valueScale * endpointShift));
+    public int[] getAchievementThresholds(int playerCount, Difficulty difficulty) {
+        if (playerCount < 1 || playerCount > MAX_CACHED_PLAYER_COUNT) {
+            return computeAchievementThresholds(playerCount, difficulty);
+        }
+        int[][][] tables = thresholdTables;
+        if (tables == null) {
+            tables = new int[Difficulty.values().length][MAX_CACHED_PLAYER_COUNT + 1][];
+            thresholdTables = tables;
+        }
+        int[] thresholds = tables[difficulty.ordinal()][playerCount];
+        if (thresholds == null) {
+            thresholds = computeAchievementThresholds(playerCount, difficulty);
+            tables[difficulty.ordinal()][playerCount] = thresholds;
+        }
+        return thresholds;
+    }
 
-        return newValue;
+    /**
+     * Works out every cached table at once, after which the game type only reads them and can score
+     * games on several threads as long as its scores do not change
+     */
+    void fillAchievementThresholds() {
+        for (Difficulty difficulty : Difficulty.values()) {
+            for (int playerCount = 1; playerCount <= MAX_CACHED_PLAYER_COUNT; playerCount++) {
+                getAchievementThresholds(playerCount, difficulty);
+            }
+        }
+        thresholdTablesFilled = true;
+    }
+
+    private int[] computeAchievementThresholds(int playerCount, Difficulty difficulty) {
+        return getScoringCurve().compileThresholds(goodScore, badScore, playerCount, difficulty);
     }
 
     /**
      * Gets the index of the achievement that was earned
-     * @param score Score of the game
+     * @param score Total score of the game
      * @param playerNumber Number of players in a game
+     * @param difficulty Difficulty the game was played at
      * @return 0 - max number of achievements, whichever one was earned by the player
      */
-    public int getAchievementIndex(float score, int playerNumber, String difficulty) {
-        int achievementTheme = GameManager.getInstance().getAchievementTheme();
-        float scaling = getDifficultyMultiplier(difficulty);
-
-        // Number of achievements
-        int achievementCount = achievementLevels[achievementTheme].length;
-
-        score /= playerNumber;
+    public int getAchievementIndex(int score, int playerNumber, Difficulty difficulty) {
+        return countReachedThresholds(getAchievementThresholds(playerNumber, difficulty), score);
+    }
 
-        // If worse than a bad score, return the worst achievement levels
-        if (score < badScore*scaling) {
-            return 0;
+    /**
+     * Scores a range of games at once, for imports and rescoring. Reads the threshold tables directly
+     * and allocates nothing for games with up to MAX_CACHED_PLAYER_COUNT players.
+     * Safe to call from several threads at once only after fillAchievementThresholds.
+     * @param totalScores Total score of each game
+     * @param playerCounts Number of players of each game
+     * @param difficultyOrdinals Ordinal of each game's Difficulty
+     * @param achievementIndices Filled with the index of the achievement each game earned
+     * @param from First game to score
+     * @param to Game after the last one to score
+     */
+    public void getAchievementIndices(int[] totalScores, int[] playerCounts, int[] difficultyOrdinals,
+                                      int[] achievementIndices, int from, int to) {
+        if (from >= to) {
+            return;
         }
-
-        if (score > goodScore*scaling) {
-            return achievementCount - 1;
+        if (!thresholdTablesFilled) {
+            fillAchievementThresholds();
         }
+        int[][][] tables = thresholdTables;
+        // Games with more players share the table worked out for the previous such game when they can
+        int uncachedPlayerCount = 0;
+        int uncachedDifficulty = -1;
+        int[] uncachedThresholds = null;
+        for (int game = from; game < to; game++) {
+            int playerCount = playerCounts[game];
+            int difficulty = difficultyOrdinals[game];
+            int[] thresholds;
+            if (playerCount >= 1 && playerCount <= MAX_CACHED_PLAYER_COUNT) {
+                thresholds = tables[difficulty][playerCount];
+            }
+            else {
+                if (playerCount != uncachedPlayerCount || difficulty != uncachedDifficulty) {
+                    uncachedThresholds = computeAchievementThresholds(playerCount, Difficulty.fromOrdinal(difficulty));
+                    uncachedPlayerCount = playerCount;
+                    uncachedDifficulty = difficulty;
+                }
+                thresholds = uncachedThresholds;
+            }
+            achievementIndices[game] = countReachedThresholds(thresholds, totalScores[game]);
+        }
+    }
 
-        // Scale the score to range from 1 to the number of achievements - 1
-        int achievementIndex = map(score,badScore*scaling, goodScore*scaling, 1, achievementCount - 2);
-        return achievementIndex;
+    /**
+     * The tables are short, so every entry is compared instead of searching them, and each comparison
+     * adds the sign bit of threshold - 1 - score rather than branching. Worked out in longs so scores
+     * near the ends of the int range cannot overflow.
+     */
+    private static int countReachedThresholds(int[] thresholds, int score) {
+        int reached = 0;
+        for (int threshold : thresholds) {
+            reached += (int) (((long) threshold - 1 - score) >>> 63);
+        }
+        return reached;
     }
 
+    /**
+     * @return Total score needed for the achievement after the one the score earns, or NO_NEXT_LEVEL
+     * if it already earns the highest
+     */
+    public int getNextAchievementThreshold(int score, int playerNumber, Difficulty difficulty) {
+        int achievementIndex = getAchievementIndex(score, playerNumber, difficulty);
+        if (achievementIndex == ACHIEVEMENT_COUNT - 1) {
+            return NO_NEXT_LEVEL;
+        }
+        return getAchievementThresholds(playerNumber, difficulty)[achievementIndex];
+    }
 
-    public String getAchievementLevel(int score, int playerNumber, String difficulty) {
+    public String getAchievementLevel(int score, int playerNumber, Difficulty difficulty) {
         int achievementTheme = GameManager.getInstance().getAchievementTheme();
 
         // Index of the achievement in a list of achievements
@@ -155,45 +412,20 @@ public class GameType {
         return achievementLevels[theme][level];
     }
 
-    public ArrayList<String> getAchievementLevelScoreRequirements(int playerNumber, String difficulty){
+    /**
+     * @return One line per achievement with its name and the total score it needs, from the threshold table
+     */
+    public ArrayList<String> getAchievementLevelScoreRequirements(int playerNumber, Difficulty difficulty){
         int achievementTheme = GameManager.getInstance().getAchievementTheme();
+        int[] thresholds = getAchievementThresholds(playerNumber, difficulty);
 
-        float scaling = getDifficultyMultiplier(difficulty);
-
-        ArrayList<String> res = new ArrayList<>();
-        // gets the good score - bad score and divides by 5 to get the intervals between achievements
-        float difference = (float)(goodScore-badScore)/5;
-
-        int max = achievementLevels[achievementTheme].length;
-
-        res.add(achievementLevels[achievementTheme][0] + " <" + (int) ((badScore*playerNumber) * scaling));
-        res.add(achievementLevels[achievementTheme][1] + " " + (int) ((badScore*playerNumber) * scaling));
-        for(int i = 2; i<=max-3; i++){
-            // below algo uses the formula from https://math.stackexchange.com/questions/914823/shift-numbers-into-a-different-range
-            // Isolated t which is the score requirement for i which is the index of the achievement levels
-            // if the game score divided by player number is >= to t then that is the achievement the game gets.
-            int minScoreRequirement = (int) (Math.ceil((((i-1)*difference) + badScore)) * scaling);
-            minScoreRequirement = (minScoreRequirement*playerNumber);
-            res.add(achievementLevels[achievementTheme][i] + " " + (minScoreRequirement));
+        ArrayList<String> res = new ArrayList<>(ACHIEVEMENT_COUNT);
+        res.add(achievementLevels[achievementTheme][0] + " <" + thresholds[0]);
+        for (int i = 1; i < ACHIEVEMENT_COUNT - 1; i++){
+            res.add(achievementLevels[achievementTheme][i] + " " + thresholds[i - 1]);
         }
-        res.add(achievementLevels[achievementTheme][max-2] + " " + (int) ((goodScore*playerNumber) * scaling));
-        res.add(achievementLevels[achievementTheme][max-1] + " >" + (int) ((goodScore*playerNumber) * scaling));
+        // Worked out as a long, as a threshold clamped to Integer.MIN_VALUE would wrap around
+        res.add(achievementLevels[achievementTheme][ACHIEVEMENT_COUNT - 1] + " >" + (thresholds[ACHIEVEMENT_COUNT - 2] - 1L));
         return res;
     }
-
-    private float getDifficultyMultiplier(String difficulty){
-        float scaling = 0;
-        switch (difficulty) {
-            case "Easy":
-                scaling = 0.75F;
-                break;
-            case "Normal":
-                scaling = 1;
-                break;
-            case "Hard":
-                scaling = 1.25F;
-                break;
-        }
-        return scaling;
-    }
 }
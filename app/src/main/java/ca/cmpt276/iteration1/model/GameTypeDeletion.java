@@ -0,0 +1,24 @@
+package ca.cmpt276.iteration1.model;
+
+/**
+ * What deleting a game type removed: the number of its played games and the bytes of the save
+ * files and photos that went with them. The files are deleted in the background, so the bytes are
+ * those queued for deletion when the game type was deleted.
+ */
+public class GameTypeDeletion {
+    private final int playedGamesDeleted;
+    private final long bytesReclaimed;
+
+    public GameTypeDeletion(int playedGamesDeleted, long bytesReclaimed) {
+        this.playedGamesDeleted = playedGamesDeleted;
+        this.bytesReclaimed = bytesReclaimed;
+    }
+
+    public int getPlayedGamesDeleted() {
+        return playedGamesDeleted;
+    }
+
+    public long getBytesReclaimed() {
+        return bytesReclaimed;
+    }
+}
@@ -0,0 +1,50 @@
+package ca.cmpt276.iteration1.model;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Calendar periods the game history can be narrowed down to. Each one is the period that
+ * contains a given day, weeks start on Monday and seasons are the meteorological ones
+ * (December to February, March to May, ...).
+ */
+public enum HistoryPeriod {
+    WEEK,
+    MONTH,
+    SEASON;
+
+    private static final int MONTHS_PER_SEASON = 3;
+
+    /**
+     * @return Start of the period that contains the day
+     */
+    public LocalDateTime getStart(LocalDate day) {
+        switch (this) {
+            case WEEK:
+                return day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)).atStartOfDay();
+            case MONTH:
+                return day.withDayOfMonth(1).atStartOfDay();
+            default:
+                // December, March, June and September are the first months of a season
+                int monthsIntoSeason = day.getMonthValue() % MONTHS_PER_SEASON;
+                return day.withDayOfMonth(1).minusMonths(monthsIntoSeason).atStartOfDay();
+        }
+    }
+
+    /**
+     * @return Start of the next period, the first moment not in the period that contains the day
+     */
+    public LocalDateTime getEnd(LocalDate day) {
+        LocalDateTime start = getStart(day);
+        switch (this) {
+            case WEEK:
+                return start.plusWeeks(1);
+            case MONTH:
+                return start.plusMonths(1);
+            default:
+                return start.plusMonths(MONTHS_PER_SEASON);
+        }
+    }
+}
@@ -2,44 +2,48 @@ package ca.cmpt276.iteration1.model;
 
 /**
 * The PlayedGame class is for storing played game's data.
-* type for game name
+* typeId for the id of the game type, so renaming the game type does not touch its games
 * numberOfPlayers for #Players
 * score for the total score of the whole team game
 * achievement for the achievement that the team got according to their score.
-* ArrayList to store each player's score and information
+* difficulty for the Difficulty the game was played at
+* playerScores for each player's score, kept as an int array so scores are never boxed
 * */
 
 import androidx.annotation.NonNull;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 
 public class PlayedGame {
-    private final String type;
+    // Unique for the lifetime of the app's data, 0 until the GameManager assigns one
+    private int id;
+
+    // Id of the game type, its name is looked up in the GameManager when needed
+    private int typeId;
 
     private int numberOfPlayers;
     private int totalScore;
 
     private int achievementIndex;
-    private String difficulty;
-    private ArrayList<Integer> playerScores;
+    private Difficulty difficulty;
+    private int[] playerScores;
 
     private final LocalDateTime datePlayed;
 
     private String picturePath, takePhotoOptions;
 
-    public PlayedGame(String type,
+    public PlayedGame(int typeId,
                       int numberOfPlayers,
                       int totalScore,
                       int achievementIndex,
-                      String difficulty,
-                      ArrayList<Integer> playerScores,
+                      Difficulty difficulty,
+                      int[] playerScores,
                       LocalDateTime datePlayed,
                       String takePhotoOptions,
                       String picturePath) {
-        this.type = type;
+        this.typeId = typeId;
         this.numberOfPlayers = numberOfPlayers;
         this.totalScore = totalScore;
         this.achievementIndex = achievementIndex;
@@ -50,8 +54,23 @@ public class PlayedGame {
         this.takePhotoOptions = takePhotoOptions;
     }
 
-    public String getType() {
-        return type;
+    public int getId() {
+        return id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    public int getTypeId() {
+        return typeId;
+    }
+
+    /**
+     * Only for games read from a save format that named the game type instead of giving its id
+     */
+    public void setTypeId(int typeId) {
+        this.typeId = typeId;
     }
 
     public int getNumberOfPlayers() {
@@ -66,7 +85,16 @@ public class PlayedGame {
         return achievementIndex;
     }
 
-    public ArrayList<Integer> getPlayerScores() { return playerScores; }
+    // Only set by the GameManager while it holds its lock, when the game type's scores changed
+    void setAchievementIndex(int achievementIndex){
+        this.achievementIndex = achievementIndex;
+    }
+
+    /**
+     * @return The scores, or null for a game saved without them. Shared with the game, so callers
+     * must not change it; edits replace the whole array through editPlayedGame.
+     */
+    public int[] getPlayerScores() { return playerScores; }
 
     public LocalDateTime getDatePlayed() { return datePlayed; }
 
@@ -83,14 +111,34 @@ public class PlayedGame {
         return takePhotoOptions;
     }
 
-    public void editPlayedGame(int numberOfPlayers, int score, int achievementIndex, String difficulty, ArrayList<Integer> playerScores, String takePhotoOptions, String picturePath){
-        this.numberOfPlayers = numberOfPlayers;
-        this.totalScore = score;
-        this.achievementIndex = achievementIndex;
-        this.difficulty = difficulty;
-        this.playerScores = playerScores;
-        this.takePhotoOptions = takePhotoOptions;
-        this.picturePath = picturePath;
+    public void editPlayedGame(int numberOfPlayers, int score, int achievementIndex, Difficulty difficulty, int[] playerScores, String takePhotoOptions, String picturePath){
+        GameManager gameManager = GameManager.getInstance();
+        // Held so a snapshot never copies a game that is halfway through an edit
+        int previousAchievementIndex;
+        synchronized (gameManager.writeLock) {
+            previousAchievementIndex = this.achievementIndex;
+            this.numberOfPlayers = numberOfPlayers;
+            this.totalScore = score;
+            this.achievementIndex = achievementIndex;
+            this.difficulty = difficulty;
+            this.playerScores = playerScores;
+            this.takePhotoOptions = takePhotoOptions;
+            this.picturePath = picturePath;
+        }
+
+        gameManager.notifyPlayedGameEdited(this, previousAchievementIndex);
+    }
+
+    /**
+     * @return A copy with the same id and values, for snapshots that later edits must not change
+     */
+    PlayedGame copy() {
+        // The score array can be changed in place, so the copy needs its own
+        int[] playerScoresCopy = playerScores == null ? null : playerScores.clone();
+        PlayedGame copy = new PlayedGame(typeId, numberOfPlayers, totalScore, achievementIndex, difficulty,
+                playerScoresCopy, datePlayed, takePhotoOptions, picturePath);
+        copy.setId(id);
+        return copy;
     }
 
     @NonNull
@@ -101,7 +149,8 @@ public class PlayedGame {
         return output;
     }
 
-    public String getDifficulty() {
-        return difficulty;
+    public Difficulty getDifficulty() {
+        // Gson leaves the field out of games read from JSON saved without one
+        return difficulty == null ? Difficulty.NORMAL : difficulty;
     }
 }
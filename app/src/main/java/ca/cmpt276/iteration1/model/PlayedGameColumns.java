@@ -0,0 +1,296 @@
+package ca.cmpt276.iteration1.model;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * The played games laid out as columns: one primitive array per field, with row i of every array
+ * holding the same game. Statistics scan one or two arrays from start to end instead of following
+ * a reference to every PlayedGame, and a game costs a few ints rather than an object, a boxed score
+ * list and its references.
+ *
+ * The player scores of all games share one array. A row points at its scores with an offset and a
+ * count, and the count is NO_SCORES for a game saved without them.
+ *
+ * The GameManager keeps its columns in step with its games under its lock. Other threads read
+ * a copy from GameManager.getPlayedGameColumnsSnapshot.
+ */
+public class PlayedGameColumns {
+    public static final int NO_SCORES = -1;
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private int size = 0;
+    private int[] ids = new int[INITIAL_CAPACITY];
+    private int[] typeIds = new int[INITIAL_CAPACITY];
+    private int[] totalScores = new int[INITIAL_CAPACITY];
+    private int[] numbersOfPlayers = new int[INITIAL_CAPACITY];
+    private int[] achievementIndices = new int[INITIAL_CAPACITY];
+    // Ordinal of each game's Difficulty
+    private int[] difficulties = new int[INITIAL_CAPACITY];
+    // Seconds since 1970 with the local date and time read as UTC, so the date never shifts
+    private long[] epochSeconds = new long[INITIAL_CAPACITY];
+    private int[] scoreOffsets = new int[INITIAL_CAPACITY];
+    private int[] scoreCounts = new int[INITIAL_CAPACITY];
+
+    private int[] playerScores = new int[INITIAL_CAPACITY];
+    private int playerScoresSize = 0;
+    // Scores left behind by edits that changed the number of players, reclaimed by compacting
+    private int unusedPlayerScores = 0;
+
+    public int size() {
+        return size;
+    }
+
+    public int getId(int row) {
+        return ids[row];
+    }
+
+    public int getTypeId(int row) {
+        return typeIds[row];
+    }
+
+    public int getTotalScore(int row) {
+        return totalScores[row];
+    }
+
+    public int getNumberOfPlayers(int row) {
+        return numbersOfPlayers[row];
+    }
+
+    public int getAchievementIndex(int row) {
+        return achievementIndices[row];
+    }
+
+    public Difficulty getDifficulty(int row) {
+        return Difficulty.fromOrdinal(difficulties[row]);
+    }
+
+    public int getDifficultyOrdinal(int row) {
+        return difficulties[row];
+    }
+
+    public long getEpochSecond(int row) {
+        return epochSeconds[row];
+    }
+
+    public LocalDateTime getDatePlayed(int row) {
+        return LocalDateTime.ofEpochSecond(epochSeconds[row], 0, ZoneOffset.UTC);
+    }
+
+    /**
+     * @return How many player scores the game has, or NO_SCORES
+     */
+    public int getPlayerScoreCount(int row) {
+        return scoreCounts[row];
+    }
+
+    public int getPlayerScore(int row, int player) {
+        return playerScores[scoreOffsets[row] + player];
+    }
+
+    /**
+     * Counts how many times each achievement was earned in one game type
+     * @param gameTypeId Id of the game type
+     * @param achievementCount Number of achievement levels, indices past it are not counted
+     * @return Number of games of the type that earned each achievement
+     */
+    public int[] countAchievements(int gameTypeId, int achievementCount) {
+        int[] achievementsEarned = new int[achievementCount];
+        for (int row = 0; row < size; row++) {
+            if (typeIds[row] == gameTypeId) {
+                int achievementIndex = achievementIndices[row];
+                if (achievementIndex >= 0 && achievementIndex < achievementCount) {
+                    achievementsEarned[achievementIndex]++;
+                }
+            }
+        }
+        return achievementsEarned;
+    }
+
+    /**
+     * @return Rows of the games played from one epoch second up to, not including, another,
+     * in the order the games were added
+     */
+    public int[] getRowsBetween(long fromEpochSecond, long toEpochSecond) {
+        int[] rows = new int[size];
+        int count = 0;
+        for (int row = 0; row < size; row++) {
+            long epochSecond = epochSeconds[row];
+            if (epochSecond >= fromEpochSecond && epochSecond < toEpochSecond) {
+                rows[count++] = row;
+            }
+        }
+        return Arrays.copyOf(rows, count);
+    }
+
+    public static long toEpochSecond(LocalDateTime datePlayed) {
+        return datePlayed.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    void add(PlayedGame playedGame) {
+        if (size == ids.length) {
+            growRows(size * 2);
+        }
+        ids[size] = playedGame.getId();
+        epochSeconds[size] = toEpochSecond(playedGame.getDatePlayed());
+        setValues(size, playedGame);
+        size++;
+    }
+
+    /**
+     * Copies an edited game's values into its row. The row is found by scanning the id column,
+     * which is fast enough for edits made by hand.
+     */
+    void update(PlayedGame playedGame) {
+        int id = playedGame.getId();
+        for (int row = 0; row < size; row++) {
+            if (ids[row] == id) {
+                int previousCount = scoreCounts[row];
+                int[] scores = playedGame.getPlayerScores();
+                if (scores != null && previousCount == scores.length) {
+                    System.arraycopy(scores, 0, playerScores, scoreOffsets[row], scores.length);
+                    setFieldValues(row, playedGame);
+                    return;
+                }
+                unusedPlayerScores += Math.max(previousCount, 0);
+                setValues(row, playedGame);
+                if (unusedPlayerScores > playerScoresSize / 2) {
+                    compactPlayerScores();
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Copies the achievement index of every game of a type back into its row in one pass, for after
+     * the whole type was scored again, where update would scan the ids once per game
+     */
+    void refreshAchievementIndices(int gameTypeId, Map<Integer, PlayedGame> playedGamesById) {
+        for (int row = 0; row < size; row++) {
+            if (typeIds[row] == gameTypeId) {
+                PlayedGame playedGame = playedGamesById.get(ids[row]);
+                if (playedGame != null) {
+                    achievementIndices[row] = playedGame.getAchievementIndex();
+                }
+            }
+        }
+    }
+
+    void removeType(int gameTypeId) {
+        int keptRows = 0;
+        for (int row = 0; row < size; row++) {
+            if (typeIds[row] != gameTypeId) {
+                moveRow(row, keptRows++);
+            }
+            else if (scoreCounts[row] > 0) {
+                unusedPlayerScores += scoreCounts[row];
+            }
+        }
+        size = keptRows;
+        if (unusedPlayerScores > playerScoresSize / 2) {
+            compactPlayerScores();
+        }
+    }
+
+    void clear() {
+        size = 0;
+        playerScoresSize = 0;
+        unusedPlayerScores = 0;
+    }
+
+    /**
+     * @return A copy trimmed to its size, for reading on another thread
+     */
+    PlayedGameColumns copy() {
+        PlayedGameColumns copy = new PlayedGameColumns();
+        int rowCapacity = Math.max(size, 1);
+        copy.size = size;
+        copy.ids = Arrays.copyOf(ids, rowCapacity);
+        copy.typeIds = Arrays.copyOf(typeIds, rowCapacity);
+        copy.totalScores = Arrays.copyOf(totalScores, rowCapacity);
+        copy.numbersOfPlayers = Arrays.copyOf(numbersOfPlayers, rowCapacity);
+        copy.achievementIndices = Arrays.copyOf(achievementIndices, rowCapacity);
+        copy.difficulties = Arrays.copyOf(difficulties, rowCapacity);
+        copy.epochSeconds = Arrays.copyOf(epochSeconds, rowCapacity);
+        copy.scoreOffsets = Arrays.copyOf(scoreOffsets, rowCapacity);
+        copy.scoreCounts = Arrays.copyOf(scoreCounts, rowCapacity);
+        copy.playerScores = Arrays.copyOf(playerScores, Math.max(playerScoresSize, 1));
+        copy.playerScoresSize = playerScoresSize;
+        copy.unusedPlayerScores = unusedPlayerScores;
+        return copy;
+    }
+
+    private void setValues(int row, PlayedGame playedGame) {
+        int[] scores = playedGame.getPlayerScores();
+        if (scores == null) {
+            scoreOffsets[row] = 0;
+            scoreCounts[row] = NO_SCORES;
+        }
+        else {
+            if (playerScoresSize + scores.length > playerScores.length) {
+                playerScores = Arrays.copyOf(playerScores, Math.max(playerScores.length * 2, playerScoresSize + scores.length));
+            }
+            System.arraycopy(scores, 0, playerScores, playerScoresSize, scores.length);
+            scoreOffsets[row] = playerScoresSize;
+            scoreCounts[row] = scores.length;
+            playerScoresSize += scores.length;
+        }
+        setFieldValues(row, playedGame);
+    }
+
+    private void setFieldValues(int row, PlayedGame playedGame) {
+        typeIds[row] = playedGame.getTypeId();
+        totalScores[row] = playedGame.getTotalScore();
+        numbersOfPlayers[row] = playedGame.getNumberOfPlayers();
+        achievementIndices[row] = playedGame.getAchievementIndex();
+        difficulties[row] = playedGame.getDifficulty().ordinal();
+    }
+
+    private void moveRow(int from, int to) {
+        if (from == to) {
+            return;
+        }
+        ids[to] = ids[from];
+        typeIds[to] = typeIds[from];
+        totalScores[to] = totalScores[from];
+        numbersOfPlayers[to] = numbersOfPlayers[from];
+        achievementIndices[to] = achievementIndices[from];
+        difficulties[to] = difficulties[from];
+        epochSeconds[to] = epochSeconds[from];
+        scoreOffsets[to] = scoreOffsets[from];
+        scoreCounts[to] = scoreCounts[from];
+    }
+
+    private void growRows(int capacity) {
+        ids = Arrays.copyOf(ids, capacity);
+        typeIds = Arrays.copyOf(typeIds, capacity);
+        totalScores = Arrays.copyOf(totalScores, capacity);
+        numbersOfPlayers = Arrays.copyOf(numbersOfPlayers, capacity);
+        achievementIndices = Arrays.copyOf(achievementIndices, capacity);
+        difficulties = Arrays.copyOf(difficulties, capacity);
+        epochSeconds = Arrays.copyOf(epochSeconds, capacity);
+        scoreOffsets = Arrays.copyOf(scoreOffsets, capacity);
+        scoreCounts = Arrays.copyOf(scoreCounts, capacity);
+    }
+
+    // Rewrites the scores in row order, dropping the ones no row points at any more
+    private void compactPlayerScores() {
+        int[] compactedScores = new int[Math.max(playerScoresSize - unusedPlayerScores, INITIAL_CAPACITY)];
+        int compactedSize = 0;
+        for (int row = 0; row < size; row++) {
+            int count = scoreCounts[row];
+            if (count > 0) {
+                System.arraycopy(playerScores, scoreOffsets[row], compactedScores, compactedSize, count);
+            }
+            scoreOffsets[row] = compactedSize;
+            compactedSize += Math.max(count, 0);
+        }
+        playerScores = compactedScores;
+        playerScoresSize = compactedSize;
+        unusedPlayerScores = 0;
+    }
+}
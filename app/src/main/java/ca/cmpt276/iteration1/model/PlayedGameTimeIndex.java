@@ -0,0 +1,80 @@
+package ca.cmpt276.iteration1.model;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+
+/**
+ * Played games sorted by the date they were played, so the games of a date range or the latest
+ * few games are found in logarithmic time instead of by scanning the whole history.
+ *
+ * The date a game was played never changes, so games do not have to be moved when edited.
+ */
+class PlayedGameTimeIndex {
+    // Games played in the same second share an entry, in the order they were added
+    private final TreeMap<LocalDateTime, ArrayList<PlayedGame>> gamesByDate = new TreeMap<>();
+    private int size = 0;
+
+    void add(PlayedGame playedGame) {
+        ArrayList<PlayedGame> gamesAtDate = gamesByDate.get(playedGame.getDatePlayed());
+        if (gamesAtDate == null) {
+            gamesAtDate = new ArrayList<>(1);
+            gamesByDate.put(playedGame.getDatePlayed(), gamesAtDate);
+        }
+        gamesAtDate.add(playedGame);
+        size++;
+    }
+
+    void remove(PlayedGame playedGame) {
+        ArrayList<PlayedGame> gamesAtDate = gamesByDate.get(playedGame.getDatePlayed());
+        if (gamesAtDate == null || !gamesAtDate.remove(playedGame)) {
+            return;
+        }
+        if (gamesAtDate.isEmpty()) {
+            gamesByDate.remove(playedGame.getDatePlayed());
+        }
+        size--;
+    }
+
+    void clear() {
+        gamesByDate.clear();
+        size = 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * @param from Earliest date to include
+     * @param to First date after the range, not included
+     * @return Games played in the range, oldest first
+     */
+    List<PlayedGame> getBetween(LocalDateTime from, LocalDateTime to) {
+        ArrayList<PlayedGame> gamesInRange = new ArrayList<>();
+        if (!from.isBefore(to)) {
+            return gamesInRange;
+        }
+        for (ArrayList<PlayedGame> gamesAtDate : gamesByDate.subMap(from, true, to, false).values()) {
+            gamesInRange.addAll(gamesAtDate);
+        }
+        return gamesInRange;
+    }
+
+    /**
+     * @return Up to count games, newest first
+     */
+    List<PlayedGame> getLatest(int count) {
+        ArrayList<PlayedGame> latestGames = new ArrayList<>(Math.min(count, size));
+        for (ArrayList<PlayedGame> gamesAtDate : gamesByDate.descendingMap().values()) {
+            for (int i = gamesAtDate.size() - 1; i >= 0; i--) {
+                if (latestGames.size() == count) {
+                    return latestGames;
+                }
+                latestGames.add(gamesAtDate.get(i));
+            }
+        }
+        return latestGames;
+    }
+}
@@ -0,0 +1,127 @@
+package ca.cmpt276.iteration1.model;
+
+import java.util.Arrays;
+
+/**
+ * The scores being typed in for a game, one slot per player, with INVALID_SCORE for a player whose
+ * score is not filled in yet.
+ *
+ * The score inputs write straight into the sheet on every keystroke, so nothing here boxes a score
+ * or allocates: parsing reads the characters in place and the sheet only allocates when the
+ * number of players grows past the slots it already has.
+ */
+public class PlayerScoreSheet {
+    public static final int INVALID_SCORE = -1;
+
+    private int[] scores;
+    private int playerCount;
+
+    public PlayerScoreSheet(int playerCount) {
+        scores = new int[playerCount];
+        Arrays.fill(scores, INVALID_SCORE);
+        this.playerCount = playerCount;
+    }
+
+    /**
+     * @param playerScores Scores of a saved game, or null for a game saved without them
+     */
+    public PlayerScoreSheet(int playerCount, int[] playerScores) {
+        this(playerCount);
+        if (playerScores != null) {
+            System.arraycopy(playerScores, 0, scores, 0, Math.min(playerCount, playerScores.length));
+        }
+    }
+
+    public int getPlayerCount() {
+        return playerCount;
+    }
+
+    /**
+     * Changes the number of players, keeping the scores of the players that are left and leaving
+     * new players unfilled.
+     */
+    public void setPlayerCount(int playerCount) {
+        if (playerCount > scores.length) {
+            int oldLength = scores.length;
+            scores = Arrays.copyOf(scores, playerCount);
+            Arrays.fill(scores, oldLength, playerCount, INVALID_SCORE);
+        }
+        else if (playerCount < this.playerCount) {
+            // Removed players are forgotten rather than coming back if the count goes up again
+            Arrays.fill(scores, playerCount, this.playerCount, INVALID_SCORE);
+        }
+        this.playerCount = playerCount;
+    }
+
+    public int getScore(int player) {
+        return scores[player];
+    }
+
+    public void setScore(int player, int score) {
+        scores[player] = score;
+    }
+
+    /**
+     * Sets a player's score from what is typed into their input, unfilled if it is not a number
+     */
+    public void setScore(int player, CharSequence input) {
+        scores[player] = parseScore(input);
+    }
+
+    public int getTotalScore() {
+        int totalScore = 0;
+        for (int i = 0; i < playerCount; i++) {
+            totalScore += scores[i];
+        }
+        return totalScore;
+    }
+
+    public boolean isComplete() {
+        for (int i = 0; i < playerCount; i++) {
+            if (scores[i] == INVALID_SCORE) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return A copy of the scores to save with a game
+     */
+    public int[] toArray() {
+        return Arrays.copyOf(scores, playerCount);
+    }
+
+    /**
+     * Integer.parseInt without the String it needs or the exception it throws on a half typed
+     * number, as this runs on every keystroke.
+     * @return The score, or INVALID_SCORE if the input is empty, not a number or does not fit an int
+     */
+    public static int parseScore(CharSequence input) {
+        int length = input.length();
+        if (length == 0) {
+            return INVALID_SCORE;
+        }
+        boolean negative = input.charAt(0) == '-';
+        int start = negative || input.charAt(0) == '+' ? 1 : 0;
+        if (start == length) {
+            return INVALID_SCORE;
+        }
+
+        // Accumulated as a negative number, which has room for Integer.MIN_VALUE
+        int limit = negative ? Integer.MIN_VALUE : -Integer.MAX_VALUE;
+        int result = 0;
+        for (int i = start; i < length; i++) {
+            int digit = Character.digit(input.charAt(i), 10);
+            if (digit < 0 || result < limit / 10) {
+                return INVALID_SCORE;
+            }
+            result *= 10;
+            if (result < limit + digit) {
+                return INVALID_SCORE;
+            }
+            result -= digit;
+        }
+        return negative ? result : -result;
+    }
+}
@@ -0,0 +1,182 @@
+package ca.cmpt276.iteration1.model;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * How a game type spreads its achievement levels over the total scores. A curve is compiled into a
+ * threshold table for each number of players and difficulty (see GameType.getAchievementThresholds),
+ * so scoring a game costs the same whatever the curve.
+ *
+ * LINEAR puts the five levels between the bad and the good score in equal steps, the rule the app
+ * has always used. LOGARITHMIC doubles each step, for games whose scores grow exponentially, so each
+ * level above the second needs twice the progress of the one before. BREAKPOINTS takes the minimum
+ * score per player of every level above the lowest from the user, for percentile tables and the like.
+ *
+ * All shapes are worked out in fixed point: the difficulty multiplier is in quarters and each step a
+ * whole fraction of the score range, so every threshold is one exact integer division.
+ */
+public final class ScoringCurve {
+    public enum Shape {
+        LINEAR,
+        LOGARITHMIC,
+        BREAKPOINTS
+    }
+
+    public static final ScoringCurve LINEAR = new ScoringCurve(Shape.LINEAR, null);
+    public static final ScoringCurve LOGARITHMIC = new ScoringCurve(Shape.LOGARITHMIC, null);
+
+    // Saved as the lower case shape name, with the breakpoints after a colon
+    private static final String BREAKPOINT_SEPARATOR = ",";
+    private static final String SHAPE_SEPARATOR = ":";
+
+    private final Shape shape;
+    // Minimum score per player for each level above the lowest, only for BREAKPOINTS
+    private final int[] breakpoints;
+
+    private ScoringCurve(Shape shape, int[] breakpoints) {
+        this.shape = shape;
+        this.breakpoints = breakpoints;
+    }
+
+    /**
+     * @param breakpoints Minimum score per player of each level above the lowest, in ascending order
+     */
+    public static ScoringCurve withBreakpoints(int[] breakpoints) {
+        if (breakpoints == null || breakpoints.length != GameType.ACHIEVEMENT_COUNT - 1) {
+            throw new IllegalArgumentException("A scoring curve needs " + (GameType.ACHIEVEMENT_COUNT - 1) + " breakpoints.");
+        }
+        for (int i = 1; i < breakpoints.length; i++) {
+            if (breakpoints[i] < breakpoints[i - 1]) {
+                throw new IllegalArgumentException("Breakpoints should be in ascending order.");
+            }
+        }
+        return new ScoringCurve(Shape.BREAKPOINTS, breakpoints.clone());
+    }
+
+    public Shape getShape() {
+        return shape;
+    }
+
+    /**
+     * @return A copy of the breakpoints, or null for a shape without them
+     */
+    public int[] getBreakpoints() {
+        return breakpoints == null ? null : breakpoints.clone();
+    }
+
+    /**
+     * @return Entry i is the lowest total score that earns achievement i + 1, in ascending order
+     */
+    int[] compileThresholds(int goodScore, int badScore, int playerCount, Difficulty difficulty) {
+        int[] thresholds = new int[GameType.ACHIEVEMENT_COUNT - 1];
+        long quarterScale = (long) playerCount * difficulty.getQuarterMultiplier();
+        if (shape == Shape.BREAKPOINTS) {
+            for (int level = 1; level < GameType.ACHIEVEMENT_COUNT; level++) {
+                thresholds[level - 1] = clampToInt(scaleAndDivide(quarterScale, breakpoints[level - 1], 4L, true));
+            }
+            return thresholds;
+        }
+
+        // Levels 1 to 6 are the bad score plus a fraction of the range: step / steps for LINEAR and
+        // (2^step - 1) / (2^steps - 1) for LOGARITHMIC, with step counting up from 0
+        int steps = GameType.ACHIEVEMENT_COUNT - 3;
+        long denominator = shape == Shape.LINEAR ? steps : (1L << steps) - 1;
+        for (int level = 1; level <= GameType.ACHIEVEMENT_COUNT - 2; level++) {
+            int step = level - 1;
+            long fraction = shape == Shape.LINEAR ? step : (1L << step) - 1;
+            long perPlayerNumerator = denominator * badScore + fraction * ((long) goodScore - badScore);
+            thresholds[level - 1] = clampToInt(scaleAndDivide(quarterScale, perPlayerNumerator, 4L * denominator, true));
+        }
+        // Above the good score, not at it
+        thresholds[GameType.ACHIEVEMENT_COUNT - 2] = clampToInt(scaleAndDivide(quarterScale, goodScore, 4L, false) + 1);
+        return thresholds;
+    }
+
+    /**
+     * @return scale * value / divisor rounded up or down, or a value just past the int range when the
+     * product does not fit in a long, as the quotient would be far outside the int range too
+     */
+    private static long scaleAndDivide(long scale, long value, long divisor, boolean roundUp) {
+        long product;
+        try {
+            product = Math.multiplyExact(scale, value);
+        }
+        catch (ArithmeticException e) {
+            return (scale < 0) == (value < 0) ? Integer.MAX_VALUE + 1L : Integer.MIN_VALUE - 1L;
+        }
+        long quotient = Math.floorDiv(product, divisor);
+        if (roundUp && Math.floorMod(product, divisor) != 0) {
+            quotient++;
+        }
+        return quotient;
+    }
+
+    private static int clampToInt(long value) {
+        return (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, value));
+    }
+
+    /**
+     * @return The curve as text, e.g. "linear" or "breakpoints:0,10,20,30,40,50,60", read by fromText
+     */
+    public String toText() {
+        String text = shape.name().toLowerCase(Locale.ROOT);
+        if (breakpoints == null) {
+            return text;
+        }
+        StringBuilder builder = new StringBuilder(text).append(SHAPE_SEPARATOR);
+        for (int i = 0; i < breakpoints.length; i++) {
+            if (i > 0) {
+                builder.append(BREAKPOINT_SEPARATOR);
+            }
+            builder.append(breakpoints[i]);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * @return The curve written by toText, or LINEAR for null, which is what game types saved
+     * before curves existed have
+     * @throws IllegalArgumentException If the text is not a curve
+     */
+    public static ScoringCurve fromText(String text) {
+        if (text == null) {
+            return LINEAR;
+        }
+        int separatorIndex = text.indexOf(SHAPE_SEPARATOR);
+        String shapeName = separatorIndex < 0 ? text : text.substring(0, separatorIndex);
+        Shape shape = Shape.valueOf(shapeName.toUpperCase(Locale.ROOT));
+        if (shape == Shape.LINEAR && separatorIndex < 0) {
+            return LINEAR;
+        }
+        if (shape == Shape.LOGARITHMIC && separatorIndex < 0) {
+            return LOGARITHMIC;
+        }
+        if (shape != Shape.BREAKPOINTS || separatorIndex < 0) {
+            throw new IllegalArgumentException("Invalid scoring curve " + text);
+        }
+        String[] parts = text.substring(separatorIndex + 1).split(BREAKPOINT_SEPARATOR);
+        int[] breakpoints = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            breakpoints[i] = Integer.parseInt(parts[i].trim());
+        }
+        return withBreakpoints(breakpoints);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof ScoringCurve)) {
+            return false;
+        }
+        ScoringCurve otherCurve = (ScoringCurve) other;
+        return shape == otherCurve.shape && Arrays.equals(breakpoints, otherCurve.breakpoints);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * shape.hashCode() + Arrays.hashCode(breakpoints);
+    }
+}
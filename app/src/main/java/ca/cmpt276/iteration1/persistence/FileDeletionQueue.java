@@ -0,0 +1,108 @@
+package ca.cmpt276.iteration1.persistence;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Deletes files and directories on one background thread, so removing a large directory or many
+ * photos never holds up the thread that asked for it.
+ *
+ * Nothing reads the files once they are queued, so a deletion cut short by the process ending
+ * only leaves them behind on the disk.
+ */
+public class FileDeletionQueue {
+    private static final ExecutorService DELETION_EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "FileDeletion");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private FileDeletionQueue() {
+        // static helpers only
+    }
+
+    /**
+     * @param paths Paths of files, null entries are skipped
+     * @return The files, for paths given as strings such as photo paths
+     */
+    public static List<File> toFiles(List<String> paths) {
+        List<File> files = new ArrayList<>(paths.size());
+        for (String path : paths) {
+            if (path != null) {
+                files.add(new File(path));
+            }
+        }
+        return files;
+    }
+
+    /**
+     * @return Bytes taken up by a file, or by every file anywhere inside a directory
+     */
+    public static long sizeOf(File file) {
+        File[] children = listDirectory(file);
+        if (children == null) {
+            return file.length();
+        }
+        long size = 0;
+        for (File child : children) {
+            size += sizeOf(child);
+        }
+        return size;
+    }
+
+    // Null for files, and for links to directories, which are deleted without what they point to
+    private static File[] listDirectory(File file) {
+        if (Files.isSymbolicLink(file.toPath())) {
+            return null;
+        }
+        return file.listFiles();
+    }
+
+    /**
+     * Queues files, and directories with everything inside them, for deletion.
+     * @return Bytes the deletion frees, counted before anything is deleted
+     */
+    public static long delete(List<File> files) {
+        long size = 0;
+        for (File file : files) {
+            size += sizeOf(file);
+        }
+        List<File> queuedFiles = new ArrayList<>(files);
+        DELETION_EXECUTOR.execute(() -> {
+            for (File file : queuedFiles) {
+                deleteNow(file);
+            }
+        });
+        return size;
+    }
+
+    /**
+     * Blocks until every deletion queued so far has finished. For tests, the app never waits for one.
+     */
+    static void awaitDeletions() {
+        try {
+            DELETION_EXECUTOR.submit(() -> { }).get();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        catch (ExecutionException e) {
+            throw new IllegalStateException("File deletion failed.", e.getCause());
+        }
+    }
+
+    private static void deleteNow(File file) {
+        File[] children = listDirectory(file);
+        if (children != null) {
+            for (File child : children) {
+                deleteNow(child);
+            }
+        }
+        file.delete();
+    }
+}
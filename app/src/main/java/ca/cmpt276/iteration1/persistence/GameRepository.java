@@ -0,0 +1,71 @@
+package ca.cmpt276.iteration1.persistence;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import ca.cmpt276.iteration1.interfaces.GameTypeListener;
+import ca.cmpt276.iteration1.interfaces.PlayedGameListener;
+import ca.cmpt276.iteration1.interfaces.PlayedGamePageListener;
+import ca.cmpt276.iteration1.model.GameType;
+import ca.cmpt276.iteration1.model.PlayedGame;
+
+/**
+ * Saves and loads everything the GameManager holds.
+ *
+ * Played games are added and edited through the listeners as the GameManager changes them, so only
+ * the changed game is written. The listeners queue their writes on the PersistenceWorker rather than
+ * writing on the caller's thread. The game type list is small and is saved in full.
+ */
+public interface GameRepository extends PlayedGameListener, GameTypeListener {
+    /**
+     * Type id of imported games whose game type had been deleted. Ids start at 1, so no game type
+     * has it and these games are kept without ever being loaded.
+     */
+    int ORPHANED_GAME_TYPE_ID = 0;
+
+    /**
+     * @return True if a game type list has been saved before, even an empty one
+     */
+    boolean hasSavedGameTypes();
+
+    ArrayList<GameType> loadGameTypes() throws IOException;
+
+    void saveGameTypes(List<GameType> gameTypes) throws IOException;
+
+    /**
+     * Saves the game types unless this version of them has already been saved.
+     * @param version Version of the game types from the GameManager
+     * @return True if the list was written
+     */
+    boolean saveGameTypesIfChanged(List<GameType> gameTypes, long version) throws IOException;
+
+    /**
+     * @return True if played games have been saved or imported before
+     */
+    boolean hasSavedPlayedGames();
+
+    /**
+     * Loads the played games of one game type, in the order they were added.
+     * @param pageListener If not null, is given the games in pages while they are being read
+     */
+    ArrayList<PlayedGame> loadPlayedGames(int gameTypeId, PlayedGamePageListener pageListener) throws IOException;
+
+    /**
+     * Adds a JSON array of played games from an older save format, which named the game type of each game.
+     * @param gameTypeIds Id of each game type name, games of any other name get ORPHANED_GAME_TYPE_ID
+     */
+    void importPlayedGames(Reader jsonArray, Map<String, Integer> gameTypeIds) throws IOException;
+
+    /**
+     * @return Highest game type id ever saved, 0 if none has been
+     */
+    int getLastGameTypeId() throws IOException;
+
+    /**
+     * @return Highest played game id ever saved, including games of types that are not loaded
+     */
+    int getLastPlayedGameId() throws IOException;
+}
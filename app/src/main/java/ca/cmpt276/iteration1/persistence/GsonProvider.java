@@ -0,0 +1,59 @@
+package ca.cmpt276.iteration1.persistence;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+import ca.cmpt276.iteration1.model.Difficulty;
+
+/**
+ * Builds the Gson instance used to save and load game data, so every reader and
+ * writer agrees on how a LocalDateTime and a Difficulty are stored.
+ */
+public class GsonProvider {
+
+    private GsonProvider() {
+        // static helpers only
+    }
+
+    public static Gson create() {
+        // https://www.javadoc.io/doc/com.google.code.gson/gson/latest/com.google.gson/com/google/gson/GsonBuilder.html
+        // https://docs.oracle.com/en/java/javase/16/docs/api/java.base/java/time/LocalDateTime.html
+        // https://www.javadoc.io/doc/com.google.code.gson/gson/2.8.1/com/google/gson/TypeAdapter.html
+        // https://www.javadoc.io/doc/com.google.code.gson/gson/2.6.2/com/google/gson/stream/JsonWriter.html
+        // https://stackoverflow.com/questions/61432170/how-to-serialize-localdate-using-gson
+        return new GsonBuilder().registerTypeAdapter(LocalDateTime.class,
+                new TypeAdapter<LocalDateTime>() {
+                    @Override
+                    public void write(JsonWriter jsonWriter,
+                                      LocalDateTime localDateTime) throws IOException {
+                        jsonWriter.value(localDateTime.toString());
+                    }
+                    @Override
+                    public LocalDateTime read(JsonReader jsonReader) throws IOException {
+                        return LocalDateTime.parse(jsonReader.nextString());
+                    }
+                })
+                // Saved by its label, as the difficulty was a plain string before, so old saves load as they are
+                .registerTypeAdapter(Difficulty.class, new TypeAdapter<Difficulty>() {
+                    @Override
+                    public void write(JsonWriter jsonWriter, Difficulty difficulty) throws IOException {
+                        jsonWriter.value(difficulty == null ? null : difficulty.getLabel());
+                    }
+                    @Override
+                    public Difficulty read(JsonReader jsonReader) throws IOException {
+                        if (jsonReader.peek() == JsonToken.NULL) {
+                            jsonReader.nextNull();
+                            return Difficulty.NORMAL;
+                        }
+                        return Difficulty.fromLabel(jsonReader.nextString());
+                    }
+                }).create();
+    }
+}
@@ -0,0 +1,71 @@
+package ca.cmpt276.iteration1.persistence;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Map;
+
+import ca.cmpt276.iteration1.model.PlayedGame;
+
+/**
+ * Reads the JSON array of played games saved by older versions of the app one game at a time.
+ * Those games named their game type instead of giving its id, so each name is looked up in the
+ * current game types. Older versions kept the games of a deleted game type, those are read with
+ * GameRepository.ORPHANED_GAME_TYPE_ID so nothing the user saved is lost.
+ */
+class LegacyPlayedGameReader implements Closeable {
+    private static final String TYPE_FIELD = "type";
+
+    private final Gson gson = GsonProvider.create();
+    private final JsonReader jsonReader;
+    private final Map<String, Integer> gameTypeIdsByName;
+
+    /**
+     * @param gameTypeIdsByName Id of each game type name
+     */
+    LegacyPlayedGameReader(Reader jsonArray, Map<String, Integer> gameTypeIdsByName) throws IOException {
+        this.jsonReader = new JsonReader(jsonArray);
+        this.gameTypeIdsByName = gameTypeIdsByName;
+        try {
+            jsonReader.beginArray();
+        }
+        catch (IllegalStateException e) {
+            throw new IOException("Unable to read the old list of played games.", e);
+        }
+    }
+
+    /**
+     * @return The next game, null once every game has been read
+     */
+    PlayedGame next() throws IOException {
+        try {
+            if (jsonReader.hasNext()) {
+                JsonObject gameObject = gson.fromJson(jsonReader, JsonObject.class);
+                JsonElement type = gameObject.remove(TYPE_FIELD);
+                Integer gameTypeId = type == null || type.isJsonNull() ? null : gameTypeIdsByName.get(type.getAsString());
+                if (gameTypeId == null) {
+                    gameTypeId = GameRepository.ORPHANED_GAME_TYPE_ID;
+                }
+                PlayedGame playedGame = gson.fromJson(gameObject, PlayedGame.class);
+                playedGame.setTypeId(gameTypeId);
+                return playedGame;
+            }
+            jsonReader.endArray();
+            return null;
+        }
+        catch (JsonParseException | IllegalStateException e) {
+            throw new IOException("Unable to read the old list of played games.", e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        jsonReader.close();
+    }
+}
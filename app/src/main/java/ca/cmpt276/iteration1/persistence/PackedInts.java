@@ -0,0 +1,48 @@
+package ca.cmpt276.iteration1.persistence;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Packs an int array into a BLOB column as 4 little-endian bytes per value, and back.
+ *
+ * Reading one is a single copy into a new int array, with no text to build or parse, and a saved
+ * array takes 4 bytes a value whatever its size.
+ */
+final class PackedInts {
+    private static final int BYTES_PER_INT = 4;
+
+    private PackedInts() {
+        // static helpers only
+    }
+
+    /**
+     * @param values Values to save, may be null
+     * @return The packed values, or null for null
+     */
+    static byte[] pack(int[] values) {
+        if (values == null) {
+            return null;
+        }
+        ByteBuffer packed = ByteBuffer.allocate(values.length * BYTES_PER_INT).order(ByteOrder.LITTLE_ENDIAN);
+        packed.asIntBuffer().put(values);
+        return packed.array();
+    }
+
+    /**
+     * @param packed Bytes read from the column, may be null
+     * @return The values, or null for null
+     * @throws IllegalArgumentException If the length is not a whole number of values
+     */
+    static int[] unpack(byte[] packed) {
+        if (packed == null) {
+            return null;
+        }
+        if (packed.length % BYTES_PER_INT != 0) {
+            throw new IllegalArgumentException("Packed ints of " + packed.length + " bytes");
+        }
+        int[] values = new int[packed.length / BYTES_PER_INT];
+        ByteBuffer.wrap(packed).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer().get(values);
+        return values;
+    }
+}
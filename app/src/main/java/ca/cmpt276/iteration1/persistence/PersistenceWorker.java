@@ -0,0 +1,214 @@
+package ca.cmpt276.iteration1.persistence;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Runs saves on one background thread so encoding and writing never happen on the UI thread.
+ *
+ * Each save is requested under a key. A request waits a short moment before it runs, and any
+ * request with the same key made in that time replaces it, so a burst of saves of the same data
+ * turns into one write of its latest state. Saves run in the order of their first request, so a
+ * save requested before a delete still runs before it, and its later requests do not move it behind
+ * the delete, where it would write back what was deleted.
+ */
+public class PersistenceWorker {
+    public static final long DEFAULT_COALESCE_DELAY_MS = 250;
+    // Longest the UI thread waits for saves when leaving a screen, well within the time Android
+    // allows before it reports the app as not responding
+    public static final long STOP_FLUSH_TIMEOUT_MS = 500;
+
+    /**
+     * A save that may fail, run on the worker thread.
+     */
+    public interface SaveTask {
+        void save() throws IOException;
+    }
+
+    private static PersistenceWorker instance;
+
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "PersistenceWorker");
+        // Pending saves are flushed on the paths that lead to the process being killed
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final long coalesceDelayMs;
+    // In the order they run, a later request for a key takes the place of the first
+    private final Map<Object, PendingSave> pendingSaves = new LinkedHashMap<>();
+    private IOException failure;
+    private int requestsReceived = 0;
+    private int savesRun = 0;
+
+    public PersistenceWorker(long coalesceDelayMs) {
+        this.coalesceDelayMs = coalesceDelayMs;
+    }
+
+    public static synchronized PersistenceWorker getInstance() {
+        if (instance == null) {
+            instance = new PersistenceWorker(DEFAULT_COALESCE_DELAY_MS);
+        }
+        return instance;
+    }
+
+    /**
+     * Queues a save, replacing a save with the same key that has not started yet.
+     * @param key Names the data being saved
+     * @param task Writes the data, should only use values captured when the save was requested
+     */
+    public synchronized void submit(String key, SaveTask task) {
+        requestsReceived++;
+        PendingSave replacedSave = pendingSaves.get(key);
+        if (replacedSave != null) {
+            // Keeps its place and its time, so saving the same data over and over still writes it every so often
+            pendingSaves.put(key, new PendingSave(task, replacedSave.dueTimeNanos));
+            return;
+        }
+        pendingSaves.put(key, new PendingSave(task, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(coalesceDelayMs)));
+        executor.schedule(this::runDueSaves, coalesceDelayMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Queues a save that nothing replaces, such as a delete.
+     */
+    public void submit(SaveTask task) {
+        Object key = new Object();
+        synchronized (this) {
+            requestsReceived++;
+            pendingSaves.put(key, new PendingSave(task, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(coalesceDelayMs)));
+        }
+        executor.schedule(this::runDueSaves, coalesceDelayMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Runs a task on the worker thread once every save requested before it has run, for loads that
+     * must read what those saves write.
+     */
+    public void runAfterPendingSaves(Runnable task) {
+        executor.execute(() -> {
+            runAllPending();
+            task.run();
+        });
+    }
+
+    /**
+     * Runs every pending save right away and waits for them to finish.
+     * @throws IOException The first save that failed since the last flush
+     */
+    public void flush() throws IOException {
+        flush(Long.MAX_VALUE);
+    }
+
+    /**
+     * Runs every pending save right away and waits up to the timeout for them to finish. Saves
+     * that are still running after it carry on in the background.
+     * @return True if every save finished in time
+     * @throws IOException The first save that failed since the last flush
+     */
+    public boolean flush(long timeoutMs) throws IOException {
+        try {
+            executor.submit(this::runAllPending).get(timeoutMs, TimeUnit.MILLISECONDS);
+        }
+        catch (TimeoutException e) {
+            return false;
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for saves to finish.", e);
+        }
+        catch (ExecutionException e) {
+            throw new IOException("Unable to finish saving.", e.getCause());
+        }
+
+        IOException failedSave;
+        synchronized (this) {
+            failedSave = failure;
+            failure = null;
+        }
+        if (failedSave != null) {
+            throw failedSave;
+        }
+        return true;
+    }
+
+    public synchronized int getRequestsReceived() {
+        return requestsReceived;
+    }
+
+    public synchronized int getSavesRun() {
+        return savesRun;
+    }
+
+    // Runs saves from the front of the queue until one is not due yet, those behind it wait for it
+    private void runDueSaves() {
+        while (true) {
+            SaveTask task;
+            synchronized (this) {
+                Iterator<PendingSave> saves = pendingSaves.values().iterator();
+                if (!saves.hasNext()) {
+                    return;
+                }
+                PendingSave nextSave = saves.next();
+                if (nextSave.dueTimeNanos - System.nanoTime() > 0) {
+                    return;
+                }
+                saves.remove();
+                task = nextSave.task;
+            }
+            run(task);
+        }
+    }
+
+    private void runAllPending() {
+        ArrayList<SaveTask> tasks;
+        synchronized (this) {
+            tasks = new ArrayList<>(pendingSaves.size());
+            for (PendingSave pendingSave : pendingSaves.values()) {
+                tasks.add(pendingSave.task);
+            }
+            pendingSaves.clear();
+        }
+        for (SaveTask task : tasks) {
+            run(task);
+        }
+    }
+
+    private void run(SaveTask task) {
+        IOException taskFailure = null;
+        try {
+            task.save();
+        }
+        catch (IOException e) {
+            taskFailure = e;
+        }
+        catch (RuntimeException e) {
+            taskFailure = new IOException("Save failed.", e);
+        }
+
+        synchronized (this) {
+            savesRun++;
+            if (failure == null) {
+                failure = taskFailure;
+            }
+        }
+    }
+
+    private static class PendingSave {
+        private final SaveTask task;
+        // Compared with System.nanoTime, which the executor's delays are measured against
+        private final long dueTimeNanos;
+
+        private PendingSave(SaveTask task, long dueTimeNanos) {
+            this.task = task;
+            this.dueTimeNanos = dueTimeNanos;
+        }
+    }
+}
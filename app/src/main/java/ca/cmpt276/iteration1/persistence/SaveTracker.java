@@ -0,0 +1,27 @@
+package ca.cmpt276.iteration1.persistence;
+
+/**
+ * Remembers the last version of some data that was saved, so saving it again can be skipped
+ * when the version in memory has not changed since.
+ *
+ * Versions come from the GameManager, which bumps them on every change. Both start at 0, so data
+ * that was just loaded is not saved straight back.
+ */
+public class SaveTracker {
+    private long savedVersion = 0;
+
+    /**
+     * @param version Current version of the data in memory
+     * @return True if the data changed since it was last saved
+     */
+    public synchronized boolean shouldSave(long version) {
+        return version != savedVersion;
+    }
+
+    /**
+     * Called once the given version of the data has reached the disk.
+     */
+    public synchronized void markSaved(long version) {
+        savedVersion = version;
+    }
+}
@@ -0,0 +1,655 @@
+package ca.cmpt276.iteration1.persistence;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.SQLException;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+import android.database.sqlite.SQLiteStatement;
+import android.util.Log;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import ca.cmpt276.iteration1.interfaces.GameTypeDeletionListener;
+import ca.cmpt276.iteration1.interfaces.PlayedGamePageListener;
+import ca.cmpt276.iteration1.model.Difficulty;
+import ca.cmpt276.iteration1.model.GameType;
+import ca.cmpt276.iteration1.model.GameTypeDeletion;
+import ca.cmpt276.iteration1.model.PlayedGame;
+import ca.cmpt276.iteration1.model.ScoringCurve;
+
+/**
+ * Keeps the game types and played games in the app's SQLite database.
+ *
+ * Played games are indexed by game type id, so loading one game type's history is an indexed
+ * lookup that comes back in the order the games were added, and by date played for queries
+ * across every game type. Each added or edited game is its own small write, queued on the
+ * PersistenceWorker by the listener methods so the UI thread never waits for the disk.
+ * A write changes the rows of one game in place, so there is no journal to replay or compact,
+ * and the type index keeps each game type's games apart without a file per game type.
+ *
+ * The id of a game type or played game is its row id. Ids are never reused, even after rows are
+ * deleted, because both tables use AUTOINCREMENT. A played game keeps the id of its game type,
+ * so renaming a game type only changes its own row.
+ */
+public class SqliteGameRepository implements GameRepository {
+    private static final String TAG = "SqliteGameRepository";
+    private static final String DATABASE_NAME = "games.db";
+    private static final int DATABASE_VERSION = 1;
+    private static final int PAGE_SIZE = 25;
+
+    private static final String GAME_TYPES_TABLE = "game_types";
+    private static final String PLAYED_GAMES_TABLE = "played_games";
+    // Holds the name of each list that has been saved, so an empty list is told apart from one never saved
+    private static final String SAVED_LISTS_TABLE = "saved_lists";
+
+    private static final String CREATE_GAME_TYPES_TABLE = "CREATE TABLE " + GAME_TYPES_TABLE + " ("
+            + "id INTEGER PRIMARY KEY AUTOINCREMENT, "
+            + "position INTEGER NOT NULL, "
+            + "name TEXT NOT NULL, "
+            + "good_score INTEGER NOT NULL, "
+            + "bad_score INTEGER NOT NULL, "
+            + "image_path TEXT, "
+            + "scoring_curve TEXT, "
+            + "achievement_counts BLOB, "
+            + "scoring_version INTEGER NOT NULL DEFAULT 0, "
+            + "games_scored_version INTEGER NOT NULL DEFAULT 0)";
+
+    private static final String PLAYED_GAME_COLUMNS = "number_of_players, total_score, achievement_index, "
+            + "difficulty, player_scores, date_played, take_photo_options, picture_path";
+
+    private static final String CREATE_PLAYED_GAMES_TABLE = "CREATE TABLE " + PLAYED_GAMES_TABLE + " ("
+            + "id INTEGER PRIMARY KEY AUTOINCREMENT, "
+            + "type_id INTEGER NOT NULL, "
+            + "number_of_players INTEGER NOT NULL, "
+            + "total_score INTEGER NOT NULL, "
+            + "achievement_index INTEGER NOT NULL, "
+            + "difficulty INTEGER NOT NULL, "
+            + "player_scores BLOB, "
+            + "date_played INTEGER NOT NULL, "
+            + "take_photo_options TEXT, "
+            + "picture_path TEXT)";
+
+    private static final String[] CREATE_PLAYED_GAME_INDEXES = {
+            // Entries of an index are kept in id order after the key, so one game type comes back in the order it was added
+            "CREATE INDEX played_games_by_type ON " + PLAYED_GAMES_TABLE + " (type_id)",
+            "CREATE INDEX played_games_by_date ON " + PLAYED_GAMES_TABLE + " (date_played)"
+    };
+
+    private static final String CREATE_SAVED_LISTS_TABLE = "CREATE TABLE " + SAVED_LISTS_TABLE + " (name TEXT PRIMARY KEY)";
+
+    // values() copies the array on every call
+    private static final Difficulty[] DIFFICULTIES = Difficulty.values();
+    private static final String SELECT_PLAYED_GAMES = "SELECT id, type_id, " + PLAYED_GAME_COLUMNS + " FROM " + PLAYED_GAMES_TABLE;
+    // Saves of one played game replace each other on the PersistenceWorker, those of different games do not
+    private static final String PLAYED_GAME_SAVE_KEY = "Played Game ";
+    // A database that fails its check is kept beside the new one under this suffix, and the files
+    // SQLite keeps next to a database are deleted with it
+    private static final String DAMAGED_SUFFIX = ".damaged";
+    // The rows still readable from a damaged database are copied into this file, which then replaces it
+    private static final String SALVAGE_SUFFIX = ".salvage";
+    private static final String SALVAGE_SCHEMA = "salvage";
+    private static final int SALVAGE_CHUNK_SIZE = 500;
+    private static final String[] DATABASE_SIDE_FILE_SUFFIXES = {"-journal", "-wal", "-shm"};
+
+    private static SqliteGameRepository instance;
+
+    private final Context context;
+    private final SQLiteOpenHelper databaseHelper;
+    // Opened and checked the first time it is needed
+    private SQLiteDatabase database;
+    private boolean damagedDatabaseRecovered = false;
+    private final SaveTracker gameTypeSaveTracker = new SaveTracker();
+
+
+    // The app shares one through getInstance, tests open their own
+    SqliteGameRepository(Context context) {
+        this.context = context;
+        databaseHelper = new SQLiteOpenHelper(context, DATABASE_NAME, null, DATABASE_VERSION) {
+            @Override
+            public void onCreate(SQLiteDatabase database) {
+                createTables(database);
+            }
+
+            @Override
+            public void onUpgrade(SQLiteDatabase database, int oldVersion, int newVersion) {
+                // Version 1 is the first schema, there is nothing to upgrade from yet
+            }
+        };
+    }
+
+    /**
+     * Closes the database, which is opened again the next time it is used.
+     */
+    synchronized void close() {
+        databaseHelper.close();
+        database = null;
+    }
+
+    private static void createTables(SQLiteDatabase database) {
+        database.execSQL(CREATE_GAME_TYPES_TABLE);
+        database.execSQL(CREATE_PLAYED_GAMES_TABLE);
+        for (String statement : CREATE_PLAYED_GAME_INDEXES) {
+            database.execSQL(statement);
+        }
+        database.execSQL(CREATE_SAVED_LISTS_TABLE);
+    }
+
+    public static synchronized SqliteGameRepository getInstance(Context context) {
+        if (instance == null) {
+            instance = new SqliteGameRepository(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    /**
+     * Opens the database the first time, checking it for damage. Damaged indexes are rebuilt from their
+     * tables. If the tables themselves are damaged, every row that can still be read is copied into a
+     * new database, which replaces the damaged one. The damaged file is kept beside it.
+     */
+    private synchronized SQLiteDatabase getDatabase() {
+        if (database == null) {
+            database = databaseHelper.getWritableDatabase();
+            if (!isIntact(database)) {
+                database = recoverDatabase(database);
+            }
+        }
+        return database;
+    }
+
+    private SQLiteDatabase recoverDatabase(SQLiteDatabase damagedDatabase) {
+        try {
+            damagedDatabase.execSQL("REINDEX");
+            if (isIntact(damagedDatabase)) {
+                Log.w(TAG, "Rebuilt the damaged indexes of " + DATABASE_NAME);
+                return damagedDatabase;
+            }
+        }
+        catch (SQLException e) {
+            Log.e(TAG, "Unable to rebuild the indexes of " + DATABASE_NAME, e);
+        }
+
+        File databaseFile = context.getDatabasePath(DATABASE_NAME);
+        File salvageFile = new File(databaseFile.getPath() + SALVAGE_SUFFIX);
+        boolean salvaged = salvageRows(damagedDatabase, salvageFile);
+        databaseHelper.close();
+
+        File damagedFile = new File(databaseFile.getPath() + DAMAGED_SUFFIX);
+        deleteDatabaseFiles(damagedFile);
+        if (!databaseFile.renameTo(damagedFile)) {
+            Log.e(TAG, "Unable to set aside the damaged " + DATABASE_NAME + ", deleting it");
+        }
+        deleteDatabaseFiles(databaseFile);
+        if (salvaged && !salvageFile.renameTo(databaseFile)) {
+            Log.e(TAG, "Unable to move the recovered rows into " + DATABASE_NAME);
+            salvaged = false;
+        }
+        deleteDatabaseFiles(salvageFile);
+        Log.e(TAG, DATABASE_NAME + " is damaged, it was moved to " + damagedFile.getName() + " and "
+                + (salvaged ? "the rows that could be read were recovered" : "a new one made"));
+        damagedDatabaseRecovered = true;
+        return databaseHelper.getWritableDatabase();
+    }
+
+    // Copies the rows of each table into a new database file a range of ids at a time. A range that fails
+    // to read is copied again one row at a time, so only the rows on damaged pages are left behind
+    private static boolean salvageRows(SQLiteDatabase damagedDatabase, File salvageFile) {
+        deleteDatabaseFiles(salvageFile);
+        try {
+            SQLiteDatabase salvageDatabase = SQLiteDatabase.openOrCreateDatabase(salvageFile, null);
+            try {
+                createTables(salvageDatabase);
+                salvageDatabase.setVersion(DATABASE_VERSION);
+            }
+            finally {
+                salvageDatabase.close();
+            }
+
+            damagedDatabase.execSQL("ATTACH DATABASE ? AS " + SALVAGE_SCHEMA, new Object[]{salvageFile.getPath()});
+            try {
+                for (String table : new String[]{GAME_TYPES_TABLE, PLAYED_GAMES_TABLE}) {
+                    int rowsCopied = salvageTable(damagedDatabase, table);
+                    if (rowsCopied > 0) {
+                        damagedDatabase.execSQL("INSERT OR IGNORE INTO " + SALVAGE_SCHEMA + "." + SAVED_LISTS_TABLE
+                                + " (name) VALUES (?)", new Object[]{table});
+                    }
+                    Log.w(TAG, "Recovered " + rowsCopied + " rows of " + table);
+                }
+            }
+            finally {
+                damagedDatabase.execSQL("DETACH DATABASE " + SALVAGE_SCHEMA);
+            }
+            return true;
+        }
+        catch (SQLException e) {
+            Log.e(TAG, "Unable to recover the rows of the damaged " + DATABASE_NAME, e);
+            return false;
+        }
+    }
+
+    private static int salvageTable(SQLiteDatabase damagedDatabase, String table) {
+        long lastId = readSalvageLastId(damagedDatabase, table);
+        int rowsCopied = 0;
+        for (long firstId = 1; firstId <= lastId; firstId += SALVAGE_CHUNK_SIZE) {
+            long chunkLastId = Math.min(lastId, firstId + SALVAGE_CHUNK_SIZE - 1);
+            try {
+                rowsCopied += copyRows(damagedDatabase, table, firstId, chunkLastId);
+            }
+            catch (SQLException e) {
+                for (long id = firstId; id <= chunkLastId; id++) {
+                    try {
+                        rowsCopied += copyRows(damagedDatabase, table, id, id);
+                    }
+                    catch (SQLException rowDamaged) {
+                        // On a damaged page, left behind
+                    }
+                }
+            }
+        }
+        // Ids of lost or deleted rows are still not reused
+        damagedDatabase.execSQL("DELETE FROM " + SALVAGE_SCHEMA + ".sqlite_sequence WHERE name = ?", new Object[]{table});
+        damagedDatabase.execSQL("INSERT INTO " + SALVAGE_SCHEMA + ".sqlite_sequence (name, seq) VALUES (?, ?)",
+                new Object[]{table, lastId});
+        return rowsCopied;
+    }
+
+    // The last id given out, or failing that the highest id still readable
+    private static long readSalvageLastId(SQLiteDatabase damagedDatabase, String table) {
+        long lastId = readLong(damagedDatabase, "SELECT seq FROM sqlite_sequence WHERE name = ?", new String[]{table});
+        return lastId > 0 ? lastId : readLong(damagedDatabase, "SELECT MAX(id) FROM " + table, null);
+    }
+
+    // 0 if the value is missing or cannot be read
+    private static long readLong(SQLiteDatabase damagedDatabase, String query, String[] arguments) {
+        try (Cursor cursor = damagedDatabase.rawQuery(query, arguments)) {
+            return cursor.moveToFirst() && !cursor.isNull(0) ? cursor.getLong(0) : 0;
+        }
+        catch (SQLException e) {
+            Log.e(TAG, "Unable to read from the damaged " + DATABASE_NAME + ": " + query, e);
+            return 0;
+        }
+    }
+
+    private static int copyRows(SQLiteDatabase damagedDatabase, String table, long firstId, long lastId) {
+        try (SQLiteStatement statement = damagedDatabase.compileStatement("INSERT INTO " + SALVAGE_SCHEMA + "." + table
+                + " SELECT * FROM main." + table + " WHERE id BETWEEN ? AND ?")) {
+            statement.bindLong(1, firstId);
+            statement.bindLong(2, lastId);
+            return statement.executeUpdateDelete();
+        }
+    }
+
+    private static void deleteDatabaseFiles(File databaseFile) {
+        if (databaseFile.exists() && !databaseFile.delete()) {
+            Log.e(TAG, "Unable to delete " + databaseFile.getName());
+        }
+        for (String suffix : DATABASE_SIDE_FILE_SUFFIXES) {
+            File sideFile = new File(databaseFile.getPath() + suffix);
+            if (sideFile.exists() && !sideFile.delete()) {
+                Log.e(TAG, "Unable to delete " + sideFile.getName());
+            }
+        }
+    }
+
+    private static boolean isIntact(SQLiteDatabase database) {
+        try (Cursor cursor = database.rawQuery("PRAGMA quick_check", null)) {
+            return cursor.moveToFirst() && "ok".equals(cursor.getString(0));
+        }
+        catch (SQLException e) {
+            Log.e(TAG, "Unable to check " + DATABASE_NAME, e);
+            return false;
+        }
+    }
+
+    /**
+     * Opens the database if it is not open yet, so call it where the database is used, off the UI thread
+     * @return True if the database was found damaged and replaced by the rows that could be read from it,
+     * so the user can be told some games may be missing
+     */
+    public synchronized boolean isDamagedDatabaseRecovered() {
+        getDatabase();
+        return damagedDatabaseRecovered;
+    }
+
+    @Override
+    public synchronized boolean hasSavedGameTypes() {
+        return isListSaved(GAME_TYPES_TABLE);
+    }
+
+    @Override
+    public synchronized ArrayList<GameType> loadGameTypes() throws IOException {
+        ArrayList<GameType> gameTypes = new ArrayList<>();
+        try (Cursor cursor = getDatabase().rawQuery(
+                "SELECT id, name, good_score, bad_score, image_path, scoring_curve, achievement_counts, scoring_version, "
+                        + "games_scored_version FROM " + GAME_TYPES_TABLE + " ORDER BY position", null)) {
+            while (cursor.moveToNext()) {
+                GameType gameType = new GameType(cursor.getString(1), cursor.getInt(2), cursor.getInt(3), getNullableString(cursor, 4),
+                        readScoringCurve(cursor.getInt(0), getNullableString(cursor, 5)));
+                gameType.setAchievementCounts(cursor.isNull(6) ? null : PackedInts.unpack(cursor.getBlob(6)));
+                gameType.setScoringVersions(cursor.getInt(7), cursor.getInt(8));
+                gameType.setId(cursor.getInt(0));
+                gameTypes.add(gameType);
+            }
+        }
+        catch (SQLException | IllegalArgumentException e) {
+            throw new IOException("Unable to load the game types.", e);
+        }
+        return gameTypes;
+    }
+
+    @Override
+    public synchronized void saveGameTypes(List<GameType> gameTypes) throws IOException {
+        SQLiteDatabase database = getDatabase();
+        database.beginTransaction();
+        try {
+            database.delete(GAME_TYPES_TABLE, null, null);
+            for (int i = 0; i < gameTypes.size(); i++) {
+                GameType gameType = gameTypes.get(i);
+                ContentValues values = new ContentValues();
+                if (gameType.getId() != 0) {
+                    values.put("id", gameType.getId());
+                }
+                values.put("position", i);
+                values.put("name", gameType.getGameType());
+                values.put("good_score", gameType.getGoodScore());
+                values.put("bad_score", gameType.getBadScore());
+                values.put("image_path", gameType.getImagePath());
+                values.put("scoring_curve", gameType.getScoringCurve().toText());
+                values.put("achievement_counts", PackedInts.pack(gameType.getAchievementCounts()));
+                values.put("scoring_version", gameType.getScoringVersion());
+                values.put("games_scored_version", gameType.getGamesScoredVersion());
+                long rowId = database.insertOrThrow(GAME_TYPES_TABLE, null, values);
+                if (gameType.getId() == 0) {
+                    gameType.setId((int) rowId);
+                }
+            }
+            markListSaved(database, GAME_TYPES_TABLE);
+            database.setTransactionSuccessful();
+        }
+        catch (SQLException e) {
+            throw new IOException("Unable to save the game types.", e);
+        }
+        finally {
+            database.endTransaction();
+        }
+    }
+
+    @Override
+    public synchronized boolean saveGameTypesIfChanged(List<GameType> gameTypes, long version) throws IOException {
+        // A list moved over from the old save format has not been written to the database yet
+        if (hasSavedGameTypes() && !gameTypeSaveTracker.shouldSave(version)) {
+            return false;
+        }
+        saveGameTypes(gameTypes);
+        gameTypeSaveTracker.markSaved(version);
+        return true;
+    }
+
+    @Override
+    public synchronized boolean hasSavedPlayedGames() {
+        return isListSaved(PLAYED_GAMES_TABLE);
+    }
+
+    @Override
+    public ArrayList<PlayedGame> loadPlayedGames(int gameTypeId, PlayedGamePageListener pageListener) throws IOException {
+        ArrayList<PlayedGame> playedGames = new ArrayList<>();
+        try (Cursor cursor = getDatabase().rawQuery(
+                SELECT_PLAYED_GAMES + " WHERE type_id = ? ORDER BY id", new String[]{Integer.toString(gameTypeId)})) {
+            while (cursor.moveToNext()) {
+                PlayedGame playedGame = readPlayedGame(cursor);
+                playedGames.add(playedGame);
+
+                if (pageListener != null && playedGames.size() % PAGE_SIZE == 0) {
+                    pageListener.onPageLoaded(new ArrayList<>(playedGames.subList(playedGames.size() - PAGE_SIZE, playedGames.size())));
+                }
+            }
+        }
+        catch (SQLException | IllegalArgumentException e) {
+            throw new IOException("Unable to load the games of game type " + gameTypeId, e);
+        }
+
+        return playedGames;
+    }
+
+    @Override
+    public synchronized void importPlayedGames(Reader jsonArray, Map<String, Integer> gameTypeIds) throws IOException {
+        SQLiteDatabase database = getDatabase();
+        database.beginTransaction();
+        try (LegacyPlayedGameReader reader = new LegacyPlayedGameReader(jsonArray, gameTypeIds)) {
+            PlayedGame playedGame;
+            while ((playedGame = reader.next()) != null) {
+                insertPlayedGame(database, playedGame);
+            }
+            markListSaved(database, PLAYED_GAMES_TABLE);
+            database.setTransactionSuccessful();
+        }
+        catch (SQLException e) {
+            throw new IOException("Unable to import the old list of played games.", e);
+        }
+        finally {
+            database.endTransaction();
+        }
+    }
+
+    @Override
+    public synchronized int getLastGameTypeId() throws IOException {
+        return getLastRowId(GAME_TYPES_TABLE);
+    }
+
+    @Override
+    public synchronized int getLastPlayedGameId() throws IOException {
+        return getLastRowId(PLAYED_GAMES_TABLE);
+    }
+
+    // AUTOINCREMENT keeps the highest row id ever used in sqlite_sequence, deleted rows included
+    private int getLastRowId(String table) throws IOException {
+        try (Cursor cursor = getDatabase().rawQuery(
+                "SELECT seq FROM sqlite_sequence WHERE name = ?", new String[]{table})) {
+            return cursor.moveToFirst() ? cursor.getInt(0) : 0;
+        }
+        catch (SQLException e) {
+            throw new IOException("Unable to read the last id of " + table, e);
+        }
+    }
+
+    @Override
+    public void onPlayedGameAdded(PlayedGame playedGame, int[] achievementCounts) {
+        savePlayedGame(playedGame, achievementCounts);
+    }
+
+    @Override
+    public void onPlayedGameEdited(PlayedGame playedGame, int[] achievementCounts) {
+        savePlayedGame(playedGame, achievementCounts);
+    }
+
+    // Written on the worker, so adding a game and editing it again straight away is one write of its latest values
+    private void savePlayedGame(PlayedGame playedGame, int[] achievementCounts) {
+        if (playedGame.getId() == 0) {
+            return;
+        }
+        PersistenceWorker.getInstance().submit(PLAYED_GAME_SAVE_KEY + playedGame.getId(),
+                () -> writePlayedGame(playedGame, achievementCounts));
+    }
+
+    // The game and its type's counts are written in one transaction, so the counts never miss a saved game
+    private synchronized void writePlayedGame(PlayedGame playedGame, int[] achievementCounts) throws IOException {
+        SQLiteDatabase database = getDatabase();
+        database.beginTransaction();
+        try {
+            ContentValues values = toContentValues(playedGame);
+            values.put("id", playedGame.getId());
+            database.insertWithOnConflict(PLAYED_GAMES_TABLE, null, values, SQLiteDatabase.CONFLICT_REPLACE);
+            writeAchievementCounts(database, playedGame.getTypeId(), achievementCounts);
+            markListSaved(database, PLAYED_GAMES_TABLE);
+            database.setTransactionSuccessful();
+        }
+        catch (SQLException e) {
+            throw new IOException("Unable to save played game " + playedGame.getId(), e);
+        }
+        finally {
+            database.endTransaction();
+        }
+    }
+
+    private static void writeAchievementCounts(SQLiteDatabase database, int gameTypeId, int[] achievementCounts) {
+        if (achievementCounts == null) {
+            return;
+        }
+        ContentValues values = new ContentValues();
+        values.put("achievement_counts", PackedInts.pack(achievementCounts));
+        database.update(GAME_TYPES_TABLE, values, "id = ?", new String[]{Integer.toString(gameTypeId)});
+    }
+
+    @Override
+    public void onPlayedGamesRescored(int gameTypeId, List<PlayedGame> playedGames, int[] achievementCounts) {
+        PersistenceWorker.getInstance().submit(() -> writeAchievementIndices(gameTypeId, playedGames, achievementCounts));
+    }
+
+    private synchronized void writeAchievementIndices(int gameTypeId, List<PlayedGame> playedGames,
+                                                      int[] achievementCounts) throws IOException {
+        // One transaction, so the database is synced once rather than once per game
+        SQLiteDatabase database = getDatabase();
+        database.beginTransaction();
+        try {
+            ContentValues values = new ContentValues();
+            String[] idArgument = new String[1];
+            for (PlayedGame playedGame : playedGames) {
+                if (playedGame.getId() == 0) {
+                    continue;
+                }
+                values.put("achievement_index", playedGame.getAchievementIndex());
+                idArgument[0] = Integer.toString(playedGame.getId());
+                database.update(PLAYED_GAMES_TABLE, values, "id = ?", idArgument);
+            }
+            writeAchievementCounts(database, gameTypeId, achievementCounts);
+            database.setTransactionSuccessful();
+        }
+        catch (SQLException e) {
+            throw new IOException("Unable to save the rescored achievements.", e);
+        }
+        finally {
+            database.endTransaction();
+        }
+    }
+
+    @Override
+    public void onGameTypeDeleted(int gameTypeId, String imagePath, GameTypeDeletionListener deletionListener) {
+        PersistenceWorker.getInstance().submit(() -> {
+            GameTypeDeletion deletion = deletePlayedGames(gameTypeId, imagePath);
+            if (deletionListener != null) {
+                deletionListener.onGameTypeDeletionFinished(deletion);
+            }
+        });
+    }
+
+    private synchronized GameTypeDeletion deletePlayedGames(int gameTypeId, String imagePath) throws IOException {
+        String[] gameTypeIdArgument = {Integer.toString(gameTypeId)};
+        List<String> paths = new ArrayList<>();
+        paths.add(imagePath);
+        int deletedGames;
+
+        // The photo paths and the delete use the type index, so neither looks at other types' games
+        SQLiteDatabase database = getDatabase();
+        database.beginTransaction();
+        try {
+            try (Cursor cursor = database.rawQuery("SELECT picture_path FROM " + PLAYED_GAMES_TABLE
+                    + " WHERE type_id = ? AND picture_path IS NOT NULL", gameTypeIdArgument)) {
+                while (cursor.moveToNext()) {
+                    paths.add(cursor.getString(0));
+                }
+            }
+            deletedGames = database.delete(PLAYED_GAMES_TABLE, "type_id = ?", gameTypeIdArgument);
+            database.setTransactionSuccessful();
+        }
+        catch (SQLException e) {
+            throw new IOException("Unable to delete the games of game type " + gameTypeId, e);
+        }
+        finally {
+            database.endTransaction();
+        }
+
+        // Deleted rows are reused by later inserts, only the photos give space back to the device
+        return new GameTypeDeletion(deletedGames, FileDeletionQueue.delete(FileDeletionQueue.toFiles(paths)));
+    }
+
+    // A game that already has an id keeps it as its row id, any other game is given the row id as its id
+    private void insertPlayedGame(SQLiteDatabase database, PlayedGame playedGame) {
+        ContentValues values = toContentValues(playedGame);
+        if (playedGame.getId() != 0) {
+            values.put("id", playedGame.getId());
+        }
+        long rowId = database.insertOrThrow(PLAYED_GAMES_TABLE, null, values);
+        if (playedGame.getId() == 0) {
+            playedGame.setId((int) rowId);
+        }
+    }
+
+    private ContentValues toContentValues(PlayedGame playedGame) {
+        ContentValues values = new ContentValues();
+        values.put("type_id", playedGame.getTypeId());
+        values.put("number_of_players", playedGame.getNumberOfPlayers());
+        values.put("total_score", playedGame.getTotalScore());
+        values.put("achievement_index", playedGame.getAchievementIndex());
+        values.put("difficulty", playedGame.getDifficulty().ordinal());
+        values.put("player_scores", PackedInts.pack(playedGame.getPlayerScores()));
+        values.put("date_played", playedGame.getDatePlayed().toEpochSecond(ZoneOffset.UTC));
+        values.put("take_photo_options", playedGame.getTakePhotoOptions());
+        values.put("picture_path", playedGame.getPicturePath());
+        return values;
+    }
+
+    private PlayedGame readPlayedGame(Cursor cursor) {
+        PlayedGame playedGame = new PlayedGame(
+                cursor.getInt(1),
+                cursor.getInt(2),
+                cursor.getInt(3),
+                cursor.getInt(4),
+                readDifficulty(cursor.getInt(5)),
+                cursor.isNull(6) ? null : PackedInts.unpack(cursor.getBlob(6)),
+                LocalDateTime.ofEpochSecond(cursor.getLong(7), 0, ZoneOffset.UTC),
+                getNullableString(cursor, 8),
+                getNullableString(cursor, 9));
+        playedGame.setId(cursor.getInt(0));
+        return playedGame;
+    }
+
+    private boolean isListSaved(String listName) {
+        try (Cursor cursor = getDatabase().rawQuery(
+                "SELECT 1 FROM " + SAVED_LISTS_TABLE + " WHERE name = ?", new String[]{listName})) {
+            return cursor.moveToFirst();
+        }
+    }
+
+    private void markListSaved(SQLiteDatabase database, String listName) {
+        database.execSQL("INSERT OR IGNORE INTO " + SAVED_LISTS_TABLE + " (name) VALUES (?)", new Object[]{listName});
+    }
+
+    // One curve that cannot be read costs its game type the curve, not the whole list of game types
+    private static ScoringCurve readScoringCurve(int gameTypeId, String text) {
+        try {
+            return ScoringCurve.fromText(text);
+        }
+        catch (IllegalArgumentException e) {
+            Log.w(TAG, "Unable to read the scoring curve of game type " + gameTypeId + ", using a linear one", e);
+            return ScoringCurve.LINEAR;
+        }
+    }
+
+    private static String getNullableString(Cursor cursor, int column) {
+        return cursor.isNull(column) ? null : cursor.getString(column);
+    }
+
+    // Saved as its ordinal, so the constants of Difficulty are only ever added at the end. A value this
+    // version does not know gets the default, as a label it did not know did for older versions
+    private static Difficulty readDifficulty(int ordinal) {
+        return ordinal >= 0 && ordinal < DIFFICULTIES.length ? DIFFICULTIES[ordinal] : Difficulty.NORMAL;
+    }
+}
@@ -0,0 +1,143 @@
+package ca.cmpt276.iteration1.model;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import ca.cmpt276.iteration1.persistence.InMemoryGameRepository;
+
+/**
+ * Tests that the GameManager keeps each game type's achievement counts in step with its played
+ * games through adds, edits, rescoring and loads, without counting the games again.
+ */
+public class AchievementCountsTest {
+    private GameManager gameManager;
+    private GameType gameType;
+    private int typeId;
+
+    @Before
+    public void resetGameManager() {
+        gameManager = GameManager.getInstance();
+        gameManager.setPlayedGameListener(null);
+        gameManager.loadGameTypeList(new ArrayList<>());
+        gameManager.loadGamePlayedList(new ArrayList<>());
+        gameType = new GameType("Catan", 100, 0, null);
+        gameManager.addGameType(gameType);
+        typeId = gameType.getId();
+        // The type's history is loaded, with no games yet
+        gameManager.loadSpecificPlayedGames(typeId, new ArrayList<>());
+    }
+
+    private PlayedGame createGame(int totalScore) {
+        return new PlayedGame(typeId, 1, totalScore, gameType.getAchievementIndex(totalScore, 1, Difficulty.NORMAL),
+                Difficulty.NORMAL, new int[]{totalScore}, LocalDateTime.of(2022, 11, 20, 18, 30), "No", null);
+    }
+
+    private static int[] counts(int... achievementIndices) {
+        int[] counts = new int[GameType.ACHIEVEMENT_COUNT];
+        for (int achievementIndex : achievementIndices) {
+            counts[achievementIndex]++;
+        }
+        return counts;
+    }
+
+    @Test
+    public void addsAndEditsMoveOneCount() {
+        PlayedGame game = createGame(10);
+        gameManager.addPlayedGame(game);
+        gameManager.addPlayedGame(createGame(150));
+        assertArrayEquals(counts(1, 7), gameManager.getSpecificAchievementCounts(typeId));
+
+        long versionBefore = gameManager.getGameTypesVersion();
+        game.editPlayedGame(1, 60, gameType.getAchievementIndex(60, 1, Difficulty.NORMAL), Difficulty.NORMAL,
+                new int[]{60}, "No", null);
+        assertArrayEquals(counts(4, 7), gameManager.getSpecificAchievementCounts(typeId));
+        // Saved with the game, the game types are not written again for it
+        assertEquals(versionBefore, gameManager.getGameTypesVersion());
+        assertArrayEquals(counts(4, 7), gameManager.getGameTypesSnapshot().get(0).getAchievementCounts());
+    }
+
+    @Test
+    public void rescoringMovesTheCounts() throws Exception {
+        gameManager.addPlayedGame(createGame(10));
+        gameManager.addPlayedGame(createGame(30));
+        gameType.editGameType("Catan", 20, 0, null);
+
+        gameManager.rescoreSpecificPlayedGames(typeId, Runnable::run, null).get();
+
+        assertArrayEquals(counts(3, 7), gameManager.getSpecificAchievementCounts(typeId));
+    }
+
+    @Test
+    public void loadingTheGamesRecountsThem() {
+        gameManager.addPlayedGame(createGame(10));
+        PlayedGame savedGame = createGame(90);
+        savedGame.setId(50);
+
+        gameManager.loadSpecificPlayedGames(typeId, new ArrayList<>(Arrays.asList(savedGame)));
+
+        assertArrayEquals(counts(5), gameManager.getSpecificAchievementCounts(typeId));
+    }
+
+    @Test
+    public void typesSavedWithoutCountsAreCountedWhenLoaded() {
+        GameType savedType = new GameType("Chess", 10, 0, null);
+        savedType.setId(9);
+        savedType.setAchievementCounts(null);
+        gameManager.loadGameTypeList(new ArrayList<>(Arrays.asList(savedType)));
+        assertNull(savedType.getAchievementCounts());
+        assertArrayEquals(new int[GameType.ACHIEVEMENT_COUNT], gameManager.getSpecificAchievementCounts(9));
+
+        PlayedGame savedGame = new PlayedGame(9, 1, 11, 7, Difficulty.NORMAL, null,
+                LocalDateTime.of(2022, 11, 20, 18, 30), "No", null);
+        savedGame.setId(1);
+        gameManager.loadSpecificPlayedGames(9, new ArrayList<>(Arrays.asList(savedGame)));
+
+        assertArrayEquals(counts(7), gameManager.getSpecificAchievementCounts(9));
+    }
+
+    @Test
+    public void newTypesStartWithNoGamesCounted() {
+        assertArrayEquals(new int[GameType.ACHIEVEMENT_COUNT], new GameType("Chess", 10, 0, null).getAchievementCounts());
+    }
+
+    @Test
+    public void countsAreSavedWithEachGame() {
+        InMemoryGameRepository repository = new InMemoryGameRepository();
+        repository.saveGameTypes(gameManager.getGameTypesSnapshot());
+        gameManager.setPlayedGameListener(repository);
+
+        PlayedGame game = createGame(10);
+        gameManager.addPlayedGame(game);
+        assertArrayEquals(counts(1), repository.loadGameTypes().get(0).getAchievementCounts());
+
+        game.editPlayedGame(1, 60, gameType.getAchievementIndex(60, 1, Difficulty.NORMAL), Difficulty.NORMAL,
+                new int[]{60}, "No", null);
+        assertArrayEquals(counts(4), repository.loadGameTypes().get(0).getAchievementCounts());
+        gameManager.setPlayedGameListener(null);
+    }
+
+    @Test
+    public void savedCountsAreShownBeforeTheGamesLoad() {
+        GameType savedType = new GameType("Chess", 10, 0, null);
+        savedType.setId(9);
+        savedType.setAchievementCounts(counts(2, 2, 6));
+        gameManager.loadGameTypeList(new ArrayList<>(Arrays.asList(savedType)));
+
+        assertArrayEquals(counts(2, 2, 6), gameManager.getSpecificAchievementCounts(9));
+    }
+
+    @Test
+    public void countsOfTheWrongLengthAreNotKnown() {
+        GameType savedType = new GameType("Chess", 10, 0, null);
+        savedType.setAchievementCounts(new int[]{1, 2});
+        assertNull(savedType.getAchievementCounts());
+    }
+}
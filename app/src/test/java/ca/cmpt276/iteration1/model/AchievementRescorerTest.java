@@ -0,0 +1,226 @@
+package ca.cmpt276.iteration1.model;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import ca.cmpt276.iteration1.interfaces.PlayedGameListener;
+import ca.cmpt276.iteration1.interfaces.RescoreProgressListener;
+
+/**
+ * Tests that rescoring gives every game the achievement its game type's current scores give it,
+ * and that the GameManager applies the results to its games, counts and listener.
+ */
+public class AchievementRescorerTest {
+    private static final Difficulty[] DIFFICULTIES = Difficulty.values();
+
+    private GameManager gameManager;
+    private final List<PlayedGame> rescoredGames = new ArrayList<>();
+
+    @Before
+    public void resetGameManager() {
+        gameManager = GameManager.getInstance();
+        gameManager.loadGameTypeList(new ArrayList<>());
+        gameManager.loadGamePlayedList(new ArrayList<>());
+        gameManager.setPlayedGameListener(new PlayedGameListener() {
+            @Override
+            public void onPlayedGameAdded(PlayedGame playedGame, int[] achievementCounts) {
+            }
+
+            @Override
+            public void onPlayedGameEdited(PlayedGame playedGame, int[] achievementCounts) {
+            }
+
+            @Override
+            public void onPlayedGamesRescored(int gameTypeId, List<PlayedGame> playedGames, int[] achievementCounts) {
+                rescoredGames.addAll(playedGames);
+            }
+        });
+    }
+
+    @After
+    public void removeListener() {
+        gameManager.setPlayedGameListener(null);
+    }
+
+    private static class ProgressRecorder implements RescoreProgressListener {
+        final AtomicInteger highestProgress = new AtomicInteger();
+        final AtomicInteger reports = new AtomicInteger();
+        volatile int gamesChanged = -1;
+
+        @Override
+        public void onRescoreProgress(int gamesRescored, int gameCount) {
+            reports.incrementAndGet();
+            highestProgress.accumulateAndGet(gamesRescored, Math::max);
+        }
+
+        @Override
+        public void onRescoreFinished(int gamesChanged) {
+            this.gamesChanged = gamesChanged;
+        }
+    }
+
+    private static int[] randomScores(Random random, int gameCount, int bound) {
+        int[] scores = new int[gameCount];
+        for (int i = 0; i < gameCount; i++) {
+            scores[i] = random.nextInt(2 * bound) - bound;
+        }
+        return scores;
+    }
+
+    private static int[] randomInts(Random random, int gameCount, int from, int to) {
+        int[] values = new int[gameCount];
+        for (int i = 0; i < gameCount; i++) {
+            values[i] = from + random.nextInt(to - from);
+        }
+        return values;
+    }
+
+    private static int[] rescoreSequentially(GameType gameType, int[] totalScores, int[] playerCounts, int[] difficultyOrdinals) {
+        int[] achievementIndices = new int[totalScores.length];
+        for (int game = 0; game < totalScores.length; game++) {
+            achievementIndices[game] = gameType.getAchievementIndex(totalScores[game], playerCounts[game],
+                    DIFFICULTIES[difficultyOrdinals[game]]);
+        }
+        return achievementIndices;
+    }
+
+    @Test
+    public void parallelScoresMatchScoringEachGame() {
+        Random random = new Random(21);
+        int gameCount = AchievementRescorer.CHUNK_SIZE * 5 + 17;
+        int[] totalScores = randomScores(random, gameCount, 2_000);
+        // Some games have more players than the threshold tables cache
+        int[] playerCounts = randomInts(random, gameCount, 1, 40);
+        int[] difficultyOrdinals = randomInts(random, gameCount, 0, DIFFICULTIES.length);
+        GameType gameType = new GameType("Catan", 30, -10, null);
+        ProgressRecorder progress = new ProgressRecorder();
+
+        int[] achievementIndices = AchievementRescorer.rescore(gameType, totalScores, playerCounts, difficultyOrdinals,
+                ForkJoinPool.commonPool(), progress);
+
+        assertArrayEquals(rescoreSequentially(gameType, totalScores, playerCounts, difficultyOrdinals), achievementIndices);
+        assertEquals(gameCount, progress.highestProgress.get());
+        assertTrue(progress.reports.get() >= 6);
+    }
+
+    @Test
+    public void editingTheScoresRescoresLoadedGames() throws Exception {
+        GameType gameType = new GameType("Catan", 100, 0, null);
+        gameManager.addGameType(gameType);
+        int typeId = gameType.getId();
+        LocalDateTime datePlayed = LocalDateTime.of(2022, 11, 20, 18, 30);
+        PlayedGame lowGame = new PlayedGame(typeId, 1, 10, gameType.getAchievementIndex(10, 1, Difficulty.NORMAL),
+                Difficulty.NORMAL, new int[]{10}, datePlayed, "No", null);
+        PlayedGame highGame = new PlayedGame(typeId, 2, 150, gameType.getAchievementIndex(150, 2, Difficulty.HARD),
+                Difficulty.HARD, new int[]{70, 80}, datePlayed, "No", null);
+        PlayedGame otherGame = new PlayedGame(typeId + 1, 1, 10, 1, Difficulty.NORMAL, null, datePlayed, "No", null);
+        gameManager.addPlayedGame(lowGame);
+        gameManager.addPlayedGame(highGame);
+        gameManager.addPlayedGame(otherGame);
+        assertEquals(1, lowGame.getAchievementIndex());
+
+        gameType.editGameType("Catan", 20, 0, null);
+        ProgressRecorder progress = new ProgressRecorder();
+        int gamesChanged = gameManager.rescoreSpecificPlayedGames(typeId, Runnable::run, progress).get();
+
+        assertEquals(2, gamesChanged);
+        assertEquals(2, progress.gamesChanged);
+        assertEquals(3, lowGame.getAchievementIndex());
+        assertEquals(7, highGame.getAchievementIndex());
+        assertEquals(1, otherGame.getAchievementIndex());
+        assertEquals(2, rescoredGames.size());
+
+        int[] achievementsEarned = gameManager.getSpecificAchievementCounts(typeId);
+        assertEquals(1, achievementsEarned[3]);
+        assertEquals(1, achievementsEarned[7]);
+        assertEquals(3, gameManager.getSpecificPlayedGamesSnapshot(typeId).get(0).getAchievementIndex());
+
+        // Nothing changes the second time
+        rescoredGames.clear();
+        assertEquals(0, (int) gameManager.rescoreSpecificPlayedGames(typeId, Runnable::run, null).get());
+        assertTrue(rescoredGames.isEmpty());
+    }
+
+    @Test
+    public void gamesAreOnlyChangedOnTheApplyExecutor() throws Exception {
+        GameType gameType = new GameType("Catan", 100, 0, null);
+        gameManager.addGameType(gameType);
+        int typeId = gameType.getId();
+        PlayedGame game = new PlayedGame(typeId, 1, 10, gameType.getAchievementIndex(10, 1, Difficulty.NORMAL),
+                Difficulty.NORMAL, new int[]{10}, LocalDateTime.of(2022, 11, 20, 18, 30), "No", null);
+        gameManager.addPlayedGame(game);
+        gameType.editGameType("Catan", 20, 0, null);
+
+        // Stands in for the main thread: holds the update until it is run here
+        LinkedBlockingQueue<Runnable> mainThread = new LinkedBlockingQueue<>();
+        Future<Integer> gamesChanged = gameManager.rescoreSpecificPlayedGames(typeId, mainThread::add, null);
+        Runnable apply = mainThread.poll(60, TimeUnit.SECONDS);
+        assertEquals(1, game.getAchievementIndex());
+        assertFalse(gamesChanged.isDone());
+
+        apply.run();
+        assertEquals(1, (int) gamesChanged.get());
+        assertEquals(3, game.getAchievementIndex());
+    }
+
+    @Test
+    public void historyNeedsRescoringOnlyAfterTheScoresChange() throws Exception {
+        GameType gameType = new GameType("Catan", 100, 0, null);
+        gameManager.addGameType(gameType);
+        int typeId = gameType.getId();
+        gameManager.loadSpecificPlayedGames(typeId, new ArrayList<>());
+        assertFalse(gameManager.needsRescoring(typeId));
+
+        gameType.editGameType("Settlers", 100, 0, null);
+        assertFalse(gameManager.needsRescoring(typeId));
+
+        gameType.editGameType("Settlers", 20, 0, null);
+        assertTrue(gameManager.needsRescoring(typeId));
+        gameManager.rescoreSpecificPlayedGames(typeId, Runnable::run, null).get();
+        assertFalse(gameManager.needsRescoring(typeId));
+
+        gameType.setScoringCurve(ScoringCurve.LOGARITHMIC);
+        assertTrue(gameManager.needsRescoring(typeId));
+    }
+
+    @Test
+    public void typesWithoutTheirHistoryLoadedStillNeedRescoring() throws Exception {
+        GameType savedType = new GameType("Chess", 10, 0, null);
+        savedType.setId(9);
+        savedType.setScoringVersions(2, 1);
+        gameManager.loadGameTypeList(new ArrayList<>(Arrays.asList(savedType)));
+
+        gameManager.rescoreSpecificPlayedGames(9, Runnable::run, null).get();
+        assertTrue(gameManager.needsRescoring(9));
+
+        gameManager.loadSpecificPlayedGames(9, new ArrayList<>());
+        gameManager.rescoreSpecificPlayedGames(9, Runnable::run, null).get();
+        assertFalse(gameManager.needsRescoring(9));
+        assertEquals(2, gameManager.getGameTypesSnapshot().get(0).getGamesScoredVersion());
+    }
+
+    @Test
+    public void unknownAndEmptyTypesChangeNothing() throws Exception {
+        ProgressRecorder progress = new ProgressRecorder();
+        assertEquals(0, (int) gameManager.rescoreSpecificPlayedGames(42, Runnable::run, progress).get());
+        assertEquals(0, progress.gamesChanged);
+        assertTrue(rescoredGames.isEmpty());
+    }
+}
@@ -0,0 +1,188 @@
+package ca.cmpt276.iteration1.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+
+/**
+ * Tests for the game types' achievement threshold tables, checked against the scoring rule worked
+ * out in exact integer arithmetic and against the requirements shown to the user, and for how the
+ * tables are cached.
+ */
+public class AchievementThresholdsTest {
+    // Difficulty multipliers in quarters
+    private static final int[] QUARTER_MULTIPLIERS = {3, 4, 5};
+
+    /**
+     * The scoring rule per player with every side multiplied up to integers: below the bad score is
+     * level 0, then five equal steps up to the good score, and above the good score is the top level.
+     */
+    private static int expectedAchievementIndex(long totalScore, long playerCount, long quarterMultiplier, long goodScore, long badScore) {
+        long scale = playerCount * quarterMultiplier;
+        if (4 * totalScore * 5 < scale * 5 * badScore) {
+            return 0;
+        }
+        if (4 * totalScore > scale * goodScore) {
+            return GameType.ACHIEVEMENT_COUNT - 1;
+        }
+        int achievementIndex = 1;
+        for (int level = 2; level <= GameType.ACHIEVEMENT_COUNT - 2; level++) {
+            if (4 * totalScore * 5 >= scale * (5 * badScore + (level - 1) * (goodScore - badScore))) {
+                achievementIndex = level;
+            }
+        }
+        return achievementIndex;
+    }
+
+    @Test
+    public void indicesMatchTheScoringRuleExactly() {
+        int[][] scoreRanges = {{100, 0}, {10, 1}, {7, 3}, {-1, -100}, {13, -8}, {1, 0}};
+        for (int[] scoreRange : scoreRanges) {
+            GameType gameType = new GameType("Type", scoreRange[0], scoreRange[1], null);
+            for (Difficulty difficulty : Difficulty.values()) {
+                for (int playerCount = 1; playerCount <= 7; playerCount++) {
+                    int limit = Math.abs(scoreRange[0]) * playerCount * 2 + Math.abs(scoreRange[1]) * playerCount * 2 + 10;
+                    for (int totalScore = -limit; totalScore <= limit; totalScore++) {
+                        assertEquals(difficulty + " " + playerCount + " players, total " + totalScore,
+                                expectedAchievementIndex(totalScore, playerCount, QUARTER_MULTIPLIERS[difficulty.ordinal()],
+                                        scoreRange[0], scoreRange[1]),
+                                gameType.getAchievementIndex(totalScore, playerCount, difficulty));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void boundariesOfTheGoodAndBadScores() {
+        GameType gameType = new GameType("My type", 100, 0, null);
+        assertEquals(0, gameType.getAchievementIndex(-1, 1, Difficulty.EASY));
+        assertEquals(1, gameType.getAchievementIndex(0, 1, Difficulty.EASY));
+        assertEquals(6, gameType.getAchievementIndex(75, 1, Difficulty.EASY));
+        assertEquals(7, gameType.getAchievementIndex(76, 1, Difficulty.EASY));
+        assertEquals(6, gameType.getAchievementIndex(100, 1, Difficulty.NORMAL));
+        assertEquals(7, gameType.getAchievementIndex(101, 1, Difficulty.NORMAL));
+        assertEquals(6, gameType.getAchievementIndex(250, 2, Difficulty.HARD));
+        assertEquals(7, gameType.getAchievementIndex(251, 2, Difficulty.HARD));
+    }
+
+    @Test
+    public void nextThresholdIsTheNextLevelsMinimum() {
+        GameType gameType = new GameType("My type", 100, 0, null);
+        assertEquals(0, gameType.getNextAchievementThreshold(-50, 1, Difficulty.NORMAL));
+        assertEquals(20, gameType.getNextAchievementThreshold(0, 1, Difficulty.NORMAL));
+        assertEquals(40, gameType.getNextAchievementThreshold(39, 2, Difficulty.NORMAL));
+        assertEquals(101, gameType.getNextAchievementThreshold(100, 1, Difficulty.NORMAL));
+        assertEquals(GameType.NO_NEXT_LEVEL, gameType.getNextAchievementThreshold(101, 1, Difficulty.NORMAL));
+    }
+
+    @Test
+    public void requirementsAreWrittenFromTheTable() {
+        GameType gameType = new GameType("Negative", -10, -60, null);
+        ArrayList<String> requirements = gameType.getAchievementLevelScoreRequirements(2, Difficulty.NORMAL);
+        int[] thresholds = gameType.getAchievementThresholds(2, Difficulty.NORMAL);
+
+        assertEquals(GameType.ACHIEVEMENT_COUNT, requirements.size());
+        assertEquals(-120, thresholds[0]);
+        assertEquals(GameType.getAchievementName(0, 0) + " <-120", requirements.get(0));
+        assertEquals(GameType.getAchievementName(1, 0) + " -120", requirements.get(1));
+        assertEquals(GameType.getAchievementName(7, 0) + " >-20", requirements.get(7));
+    }
+
+    // The index a user would read off the requirements: the highest level whose minimum the score reaches
+    private static int achievementIndexFromRequirements(ArrayList<String> requirements, int totalScore) {
+        int lowest = requirementValue(requirements.get(0), " <");
+        int highest = requirementValue(requirements.get(GameType.ACHIEVEMENT_COUNT - 1), " >");
+        if (totalScore > highest) {
+            return GameType.ACHIEVEMENT_COUNT - 1;
+        }
+        for (int level = GameType.ACHIEVEMENT_COUNT - 2; level >= 1; level--) {
+            if (totalScore >= requirementValue(requirements.get(level), " ")) {
+                return level;
+            }
+        }
+        assertTrue(totalScore < lowest);
+        return 0;
+    }
+
+    private static int requirementValue(String requirement, String separator) {
+        return Integer.parseInt(requirement.substring(requirement.lastIndexOf(separator) + separator.length()));
+    }
+
+    @Test
+    public void requirementsAgreeWithIndicesOverAWideRange() {
+        int[][] scoreRanges = {{100, 0}, {10, 1}, {7, 3}, {-1, -100}, {13, -8}, {1, 0}, {1_000, -1_000}};
+        for (int[] scoreRange : scoreRanges) {
+            GameType gameType = new GameType("Type", scoreRange[0], scoreRange[1], null);
+            for (Difficulty difficulty : Difficulty.values()) {
+                for (int playerCount = 1; playerCount <= 8; playerCount++) {
+                    ArrayList<String> requirements = gameType.getAchievementLevelScoreRequirements(playerCount, difficulty);
+                    int[] thresholds = gameType.getAchievementThresholds(playerCount, difficulty);
+                    for (int totalScore = thresholds[0] - 2_000; totalScore <= thresholds[thresholds.length - 1] + 2_000; totalScore++) {
+                        assertEquals(difficulty + " " + playerCount + " players, total " + totalScore,
+                                achievementIndexFromRequirements(requirements, totalScore),
+                                gameType.getAchievementIndex(totalScore, playerCount, difficulty));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void extremeScoresStayOrderedWithinTheIntRange() {
+        int[][] scoreRanges = {{Integer.MAX_VALUE, Integer.MIN_VALUE}, {Integer.MAX_VALUE, Integer.MAX_VALUE - 1},
+                {Integer.MIN_VALUE + 1, Integer.MIN_VALUE}};
+        int[] playerCounts = {1, 2, 31, 33, 1_000_000, Integer.MAX_VALUE};
+        for (int[] scoreRange : scoreRanges) {
+            GameType gameType = new GameType("Extreme", scoreRange[0], scoreRange[1], null);
+            for (Difficulty difficulty : Difficulty.values()) {
+                for (int playerCount : playerCounts) {
+                    int[] thresholds = gameType.getAchievementThresholds(playerCount, difficulty);
+                    for (int i = 1; i < thresholds.length; i++) {
+                        assertTrue(thresholds[i - 1] <= thresholds[i]);
+                    }
+                }
+            }
+        }
+        GameType gameType = new GameType("Extreme", Integer.MAX_VALUE, Integer.MIN_VALUE, null);
+        // Steps of (2^32 - 1) / 5 up from the bad score, so 0 is two and a half steps up
+        assertEquals(1, gameType.getAchievementIndex(Integer.MIN_VALUE, 1, Difficulty.NORMAL));
+        assertEquals(3, gameType.getAchievementIndex(0, 1, Difficulty.NORMAL));
+    }
+
+    @Test
+    public void requirementsOfClampedThresholdsDoNotWrapAround() {
+        GameType gameType = new GameType("Extreme", Integer.MIN_VALUE + 1, Integer.MIN_VALUE, null);
+        int[] thresholds = gameType.getAchievementThresholds(1_000_000, Difficulty.HARD);
+        assertEquals(Integer.MIN_VALUE, thresholds[thresholds.length - 1]);
+
+        ArrayList<String> requirements = gameType.getAchievementLevelScoreRequirements(1_000_000, Difficulty.HARD);
+        assertEquals(GameType.getAchievementName(7, 0) + " >-2147483649", requirements.get(7));
+    }
+
+    @Test
+    public void tablesAreCachedUntilTheScoresChange() {
+        GameType gameType = new GameType("Cached", 50, 10, null);
+        int[] thresholds = gameType.getAchievementThresholds(3, Difficulty.HARD);
+        assertSame(thresholds, gameType.getAchievementThresholds(3, Difficulty.HARD));
+        assertNotSame(thresholds, gameType.getAchievementThresholds(3, Difficulty.EASY));
+
+        gameType.editGameType("Cached", 100, 10, null);
+        int[] editedThresholds = gameType.getAchievementThresholds(3, Difficulty.HARD);
+        assertNotSame(thresholds, editedThresholds);
+        assertEquals(6, gameType.getAchievementIndex(375, 3, Difficulty.HARD));
+        assertEquals(7, gameType.getAchievementIndex(376, 3, Difficulty.HARD));
+    }
+
+    @Test
+    public void largePlayerCountsAreWorkedOutWithoutCaching() {
+        GameType gameType = new GameType("Crowd", 10, 0, null);
+        assertEquals(6, gameType.getAchievementIndex(10_000, 1_000, Difficulty.NORMAL));
+        assertEquals(7, gameType.getAchievementIndex(10_001, 1_000, Difficulty.NORMAL));
+    }
+}
@@ -0,0 +1,93 @@
+package ca.cmpt276.iteration1.model;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+/**
+ * Tests that scoring games in a batch gives the same achievements as scoring them one at a time.
+ */
+public class BatchScoringTest {
+    private static final Difficulty[] DIFFICULTIES = Difficulty.values();
+
+    private static int[] randomInts(Random random, int gameCount, int from, int to) {
+        int[] values = new int[gameCount];
+        for (int i = 0; i < gameCount; i++) {
+            values[i] = from + random.nextInt(to - from);
+        }
+        return values;
+    }
+
+    private static int[] scoreEachGame(GameType gameType, int[] totalScores, int[] playerCounts, int[] difficultyOrdinals) {
+        int[] achievementIndices = new int[totalScores.length];
+        for (int game = 0; game < totalScores.length; game++) {
+            achievementIndices[game] = gameType.getAchievementIndex(totalScores[game], playerCounts[game],
+                    DIFFICULTIES[difficultyOrdinals[game]]);
+        }
+        return achievementIndices;
+    }
+
+    @Test
+    public void batchMatchesScoringEachGame() {
+        Random random = new Random(22);
+        int gameCount = 50_000;
+        int[] totalScores = randomInts(random, gameCount, -3_000, 3_000);
+        // Includes player counts past the cached tables and games with no players
+        int[] playerCounts = randomInts(random, gameCount, 0, 50);
+        int[] difficultyOrdinals = randomInts(random, gameCount, 0, DIFFICULTIES.length);
+        int[][] scoreRanges = {{100, 0}, {10, 1}, {-1, -100}, {13, -8}};
+
+        for (int[] scoreRange : scoreRanges) {
+            GameType gameType = new GameType("Type", scoreRange[0], scoreRange[1], null);
+            int[] achievementIndices = new int[gameCount];
+            gameType.getAchievementIndices(totalScores, playerCounts, difficultyOrdinals, achievementIndices, 0, gameCount);
+            assertArrayEquals(scoreEachGame(gameType, totalScores, playerCounts, difficultyOrdinals), achievementIndices);
+        }
+    }
+
+    @Test
+    public void extremeScoresDoNotOverflow() {
+        GameType gameType = new GameType("Extreme", 1_000_000, -1_000_000, null);
+        int[] totalScores = {Integer.MIN_VALUE, Integer.MAX_VALUE, Integer.MIN_VALUE, Integer.MAX_VALUE};
+        int[] playerCounts = {1, 1, 5_000, 5_000};
+        int[] difficultyOrdinals = {0, 2, 2, 0};
+        int[] achievementIndices = new int[totalScores.length];
+
+        gameType.getAchievementIndices(totalScores, playerCounts, difficultyOrdinals, achievementIndices, 0, totalScores.length);
+
+        assertEquals(0, achievementIndices[0]);
+        assertEquals(7, achievementIndices[1]);
+        assertArrayEquals(scoreEachGame(gameType, totalScores, playerCounts, difficultyOrdinals), achievementIndices);
+    }
+
+    @Test
+    public void onlyTheRangeIsScored() {
+        GameType gameType = new GameType("Range", 100, 0, null);
+        int[] totalScores = {500, 500, 500, 500};
+        int[] playerCounts = {1, 1, 1, 1};
+        int[] difficultyOrdinals = {1, 1, 1, 1};
+        int[] achievementIndices = {-1, -1, -1, -1};
+
+        gameType.getAchievementIndices(totalScores, playerCounts, difficultyOrdinals, achievementIndices, 1, 3);
+
+        assertArrayEquals(new int[]{-1, 7, 7, -1}, achievementIndices);
+    }
+
+    @Test
+    public void editedScoresAreUsedByTheNextBatch() {
+        GameType gameType = new GameType("Edited", 100, 0, null);
+        int[] totalScores = {60};
+        int[] playerCounts = {1};
+        int[] difficultyOrdinals = {Difficulty.NORMAL.ordinal()};
+        int[] achievementIndices = new int[1];
+        gameType.getAchievementIndices(totalScores, playerCounts, difficultyOrdinals, achievementIndices, 0, 1);
+        assertEquals(4, achievementIndices[0]);
+
+        gameType.editGameType("Edited", 50, 0, null);
+        gameType.getAchievementIndices(totalScores, playerCounts, difficultyOrdinals, achievementIndices, 0, 1);
+        assertEquals(7, achievementIndices[0]);
+    }
+}
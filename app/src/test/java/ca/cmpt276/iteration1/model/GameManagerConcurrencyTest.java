@@ -0,0 +1,162 @@
+package ca.cmpt276.iteration1.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Stress test for the GameManager's threading: games are added and edited on several threads while
+ * others keep reading snapshots and counting statistics from them. Every game is always written with
+ * a total that is the sum of its scores and an achievement worked out from the total, so a snapshot
+ * that caught a game halfway through a change would fail the checks.
+ */
+public class GameManagerConcurrencyTest {
+    private static final int[] TYPE_IDS = {1, 2};
+    private static final int GAMES_PER_ADDER = 5_000;
+    private static final int ACHIEVEMENT_COUNT = 8;
+
+    private GameManager gameManager;
+
+    @Before
+    public void resetGameManager() {
+        gameManager = GameManager.getInstance();
+        gameManager.loadGameTypeList(new ArrayList<>());
+        gameManager.loadGamePlayedList(new ArrayList<>());
+    }
+
+    private static PlayedGame createGame(int typeId, int firstScore, int secondScore) {
+        int totalScore = firstScore + secondScore;
+        return new PlayedGame(typeId, 2, totalScore, totalScore % ACHIEVEMENT_COUNT, Difficulty.NORMAL,
+                new int[]{firstScore, secondScore},
+                LocalDateTime.of(2022, 11, 20, 18, 30).plusSeconds(firstScore), "No", null);
+    }
+
+    private static void editGame(PlayedGame playedGame, int firstScore, int secondScore) {
+        int totalScore = firstScore + secondScore;
+        playedGame.editPlayedGame(2, totalScore, totalScore % ACHIEVEMENT_COUNT, Difficulty.HARD,
+                new int[]{firstScore, secondScore}, "No", null);
+    }
+
+    private static void assertConsistent(PlayedGame playedGame) {
+        int[] playerScores = playedGame.getPlayerScores();
+        assertEquals(playedGame.getNumberOfPlayers(), playerScores.length);
+        assertEquals(playerScores[0] + playerScores[1], playedGame.getTotalScore());
+        assertEquals(playedGame.getTotalScore() % ACHIEVEMENT_COUNT, playedGame.getAchievementIndex());
+    }
+
+    @Test
+    public void concurrentAddsEditsAndStatisticsStayConsistent() throws Exception {
+        final int ADDER_COUNT = TYPE_IDS.length;
+        final int READER_COUNT = 2;
+        ExecutorService executor = Executors.newFixedThreadPool(ADDER_COUNT + READER_COUNT + 1);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean addingDone = new AtomicBoolean(false);
+        List<Future<?>> adders = new ArrayList<>();
+        List<Future<?>> others = new ArrayList<>();
+
+        for (int typeId : TYPE_IDS) {
+            adders.add(executor.submit((Callable<Void>) () -> {
+                start.await();
+                for (int i = 0; i < GAMES_PER_ADDER; i++) {
+                    gameManager.addPlayedGame(createGame(typeId, i, 2 * i));
+                }
+                return null;
+            }));
+        }
+
+        Future<Integer> editor = executor.submit(() -> {
+            Random random = new Random(1);
+            int edits = 0;
+            start.await();
+            while (!addingDone.get()) {
+                List<PlayedGame> latestGames = gameManager.getLatestPlayedGames(10);
+                if (latestGames.isEmpty()) {
+                    continue;
+                }
+                editGame(latestGames.get(random.nextInt(latestGames.size())), random.nextInt(1000), random.nextInt(1000));
+                edits++;
+            }
+            return edits;
+        });
+
+        for (int i = 0; i < READER_COUNT; i++) {
+            others.add(executor.submit((Callable<Void>) () -> {
+                int previousSize = 0;
+                start.await();
+                while (!addingDone.get()) {
+                    List<PlayedGame> snapshot = gameManager.getPlayedGamesSnapshot();
+                    assertTrue("Snapshots never go back in time", snapshot.size() >= previousSize);
+                    previousSize = snapshot.size();
+
+                    Set<Integer> ids = new HashSet<>();
+                    int[] achievementsEarned = new int[ACHIEVEMENT_COUNT];
+                    for (PlayedGame playedGame : snapshot) {
+                        assertConsistent(playedGame);
+                        assertTrue("Ids are unique", ids.add(playedGame.getId()));
+                        achievementsEarned[playedGame.getAchievementIndex()]++;
+                    }
+                    assertEquals(snapshot.size(), Arrays.stream(achievementsEarned).sum());
+
+                    for (PlayedGame playedGame : gameManager.getSpecificPlayedGamesSnapshot(TYPE_IDS[0])) {
+                        assertEquals(TYPE_IDS[0], playedGame.getTypeId());
+                        assertConsistent(playedGame);
+                    }
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> adder : adders) {
+            adder.get(60, TimeUnit.SECONDS);
+        }
+        addingDone.set(true);
+        assertTrue(editor.get(60, TimeUnit.SECONDS) > 0);
+        for (Future<?> other : others) {
+            // Rethrows the assertion a reader failed on
+            other.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertEquals(ADDER_COUNT * GAMES_PER_ADDER, gameManager.getPlayedGamesSnapshot().size());
+        for (int typeId : TYPE_IDS) {
+            assertEquals(GAMES_PER_ADDER, gameManager.getSpecificPlayedGamesSnapshot(typeId).size());
+            // The columns took every add and edit too
+            assertEquals(GAMES_PER_ADDER, Arrays.stream(gameManager.countSpecificAchievements(typeId, ACHIEVEMENT_COUNT)).sum());
+        }
+        for (PlayedGame playedGame : gameManager.getPlayedGamesSnapshot()) {
+            assertConsistent(playedGame);
+        }
+    }
+
+    @Test
+    public void snapshotIsNotChangedByLaterEdits() {
+        PlayedGame playedGame = createGame(TYPE_IDS[0], 1, 2);
+        gameManager.addPlayedGame(playedGame);
+        List<PlayedGame> snapshot = gameManager.getPlayedGamesSnapshot();
+        assertSame(snapshot, gameManager.getPlayedGamesSnapshot());
+
+        editGame(playedGame, 10, 20);
+        assertEquals(3, snapshot.get(0).getTotalScore());
+        assertEquals(30, gameManager.getPlayedGamesSnapshot().get(0).getTotalScore());
+        assertEquals(playedGame.getId(), snapshot.get(0).getId());
+    }
+}
@@ -0,0 +1,267 @@
+package ca.cmpt276.iteration1.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Tests for the lookups the GameManager keeps indexed.
+ */
+public class GameManagerTest {
+    // Ids of game types the played games belong to, in tests that do not need the game types themselves
+    private static final int CATAN = 1;
+    private static final int CHESS = 2;
+    private static final int GO = 3;
+
+    private GameManager gameManager;
+
+    @Before
+    public void resetGameManager() {
+        gameManager = GameManager.getInstance();
+        gameManager.loadGameTypeList(new ArrayList<>());
+        gameManager.loadGamePlayedList(new ArrayList<>());
+    }
+
+    @Test
+    public void gameTypeLookupFollowsAddAndDelete() {
+        GameType catan = new GameType("Catan", 100, 10, null);
+        gameManager.addGameType(catan);
+        gameManager.addGameType(new GameType("Chess", 3, 1, null));
+        assertSame(catan, gameManager.getGameTypeFromString("Catan"));
+
+        gameManager.deleteGameType(catan.getId(), null);
+        assertNull(gameManager.getGameTypeFromString("Catan"));
+    }
+
+    @Test
+    public void gameTypeLookupFollowsRename() {
+        GameType catan = new GameType("Catan", 100, 10, null);
+        gameManager.addGameType(catan);
+
+        catan.editGameType("Settlers", 100, 10, null);
+        assertSame(catan, gameManager.getGameTypeFromString("Settlers"));
+        assertNull(gameManager.getGameTypeFromString("Catan"));
+    }
+
+    @Test
+    public void gameTypeLookupFollowsLoad() {
+        gameManager.addGameType(new GameType("Catan", 100, 10, null));
+        ArrayList<GameType> loadedTypes = new ArrayList<>();
+        GameType chess = new GameType("Chess", 3, 1, null);
+        loadedTypes.add(chess);
+
+        gameManager.loadGameTypeList(loadedTypes);
+        assertSame(chess, gameManager.getGameTypeFromString("Chess"));
+        assertNull(gameManager.getGameTypeFromString("Catan"));
+    }
+
+    @Test
+    public void renamingAwayFromSharedNameFindsTheOtherType() {
+        GameType first = new GameType("Catan", 100, 10, null);
+        GameType second = new GameType("Catan", 50, 5, null);
+        gameManager.addGameType(first);
+        gameManager.addGameType(second);
+        assertSame(first, gameManager.getGameTypeFromString("Catan"));
+
+        first.editGameType("Settlers", 100, 10, null);
+        assertSame(second, gameManager.getGameTypeFromString("Catan"));
+        assertSame(first, gameManager.getGameTypeFromString("Settlers"));
+    }
+
+    private PlayedGame createGame(int typeId, int totalScore) {
+        return new PlayedGame(typeId, 1, totalScore, 3, Difficulty.NORMAL,
+                new int[]{totalScore},
+                LocalDateTime.of(2022, 11, 20, 18, 30), "No", null);
+    }
+
+    @Test
+    public void specificPlayedGamesFollowAddLoadAndDelete() {
+        List<PlayedGame> catanGames = gameManager.getSpecificPlayedGames(CATAN);
+        assertTrue(catanGames.isEmpty());
+
+        gameManager.addPlayedGame(createGame(CATAN, 1));
+        gameManager.addPlayedGame(createGame(CHESS, 2));
+        gameManager.addPlayedGame(createGame(CATAN, 3));
+        catanGames = gameManager.getSpecificPlayedGames(CATAN);
+        assertEquals(2, catanGames.size());
+        assertEquals(3, catanGames.get(1).getTotalScore());
+
+        ArrayList<PlayedGame> loadedGames = new ArrayList<>();
+        loadedGames.add(createGame(CATAN, 7));
+        gameManager.loadSpecificPlayedGames(CATAN, loadedGames);
+        assertEquals(1, catanGames.size());
+        assertEquals(7, catanGames.get(0).getTotalScore());
+        assertEquals(1, gameManager.getSpecificPlayedGames(CHESS).size());
+
+        List<GameTypeDeletion> deletions = new ArrayList<>();
+        gameManager.deleteGameType(CATAN, deletions::add);
+        assertEquals(1, deletions.get(0).getPlayedGamesDeleted());
+        assertTrue(catanGames.isEmpty());
+        assertTrue(gameManager.getSpecificPlayedGames(CATAN).isEmpty());
+        assertEquals(1, gameManager.getPlayedGames().size());
+    }
+
+    @Test
+    public void loadedStateFollowsLoadAndDelete() {
+        assertFalse(gameManager.isSpecificPlayedGamesLoaded(CATAN));
+
+        gameManager.loadSpecificPlayedGames(CATAN, new ArrayList<>());
+        assertTrue(gameManager.isSpecificPlayedGamesLoaded(CATAN));
+        assertFalse(gameManager.isSpecificPlayedGamesLoaded(CHESS));
+
+        gameManager.deleteGameType(CATAN, null);
+        assertFalse(gameManager.isSpecificPlayedGamesLoaded(CATAN));
+    }
+
+    @Test
+    public void addedGamesGetUniqueIdsThatFindThem() {
+        GameType catan = new GameType("Catan", 100, 10, null);
+        gameManager.addGameType(catan);
+        PlayedGame first = createGame(catan.getId(), 1);
+        PlayedGame second = createGame(catan.getId(), 2);
+        gameManager.addPlayedGame(first);
+        gameManager.addPlayedGame(second);
+
+        assertTrue(catan.getId() > 0);
+        assertTrue(first.getId() > 0);
+        assertTrue(second.getId() > first.getId());
+        assertSame(catan, gameManager.getGameTypeFromId(catan.getId()));
+        assertSame(second, gameManager.getPlayedGameFromId(second.getId()));
+
+        // Renaming keeps the id, deleting forgets it and its games
+        catan.editGameType("Settlers", 100, 10, null);
+        assertSame(catan, gameManager.getGameTypeFromId(catan.getId()));
+        gameManager.deleteGameType(catan.getId(), null);
+        assertNull(gameManager.getGameTypeFromId(catan.getId()));
+        assertNull(gameManager.getPlayedGameFromId(first.getId()));
+    }
+
+    @Test
+    public void renamingGameTypeKeepsItsPlayedGames() {
+        GameType catan = new GameType("Catan", 100, 10, null);
+        gameManager.addGameType(catan);
+        PlayedGame playedGame = createGame(catan.getId(), 1);
+        gameManager.addPlayedGame(playedGame);
+        List<PlayedGame> catanGames = gameManager.getSpecificPlayedGames(catan.getId());
+
+        catan.editGameType("Settlers", 100, 10, null);
+        assertSame(catanGames, gameManager.getSpecificPlayedGames(catan.getId()));
+        assertSame(playedGame, catanGames.get(0));
+        assertEquals("Settlers", gameManager.getGameTypeFromId(playedGame.getTypeId()).getGameType());
+        assertEquals(Integer.valueOf(catan.getId()), gameManager.getGameTypeIdsByName().get("Settlers"));
+        assertNull(gameManager.getGameTypeIdsByName().get("Catan"));
+    }
+
+    @Test
+    public void loadedIdsAreKeptAndNotHandedOutAgain() {
+        PlayedGame saved = createGame(CATAN, 1);
+        saved.setId(1_000_000);
+        ArrayList<PlayedGame> loadedGames = new ArrayList<>();
+        loadedGames.add(saved);
+        gameManager.loadSpecificPlayedGames(CATAN, loadedGames);
+        assertSame(saved, gameManager.getPlayedGameFromId(1_000_000));
+
+        // An id saved for a game type that is not loaded is skipped as well
+        gameManager.reserveIds(0, 2_000_000);
+        PlayedGame added = createGame(CATAN, 2);
+        gameManager.addPlayedGame(added);
+        assertTrue(added.getId() > 2_000_000);
+
+        gameManager.loadSpecificPlayedGames(CATAN, new ArrayList<>());
+        assertNull(gameManager.getPlayedGameFromId(1_000_000));
+    }
+
+    @Test
+    public void gameTypesLoadedWithoutIdsAreGivenOnesAndSavedAgain() {
+        ArrayList<GameType> loadedTypes = new ArrayList<>();
+        GameType chess = new GameType("Chess", 3, 1, null);
+        loadedTypes.add(chess);
+        long versionBeforeLoad = gameManager.getGameTypesVersion();
+
+        gameManager.loadGameTypeList(loadedTypes);
+        assertTrue(chess.getId() > 0);
+        assertSame(chess, gameManager.getGameTypeFromId(chess.getId()));
+        assertTrue(gameManager.getGameTypesVersion() > versionBeforeLoad);
+    }
+
+    private PlayedGame createGame(int typeId, int totalScore, LocalDateTime datePlayed) {
+        return new PlayedGame(typeId, 1, totalScore, 3, Difficulty.NORMAL,
+                new int[]{totalScore}, datePlayed, "No", null);
+    }
+
+    @Test
+    public void playedGamesBetweenDatesAreFoundByType() {
+        LocalDateTime evening = LocalDateTime.of(2022, 11, 20, 18, 30);
+        gameManager.addPlayedGame(createGame(CATAN, 1, evening.minusDays(8)));
+        gameManager.addPlayedGame(createGame(CATAN, 2, evening));
+        gameManager.addPlayedGame(createGame(CHESS, 3, evening));
+        // Played in the same second as an earlier game, both must be kept
+        gameManager.addPlayedGame(createGame(CATAN, 4, evening));
+        gameManager.addPlayedGame(createGame(CATAN, 5, evening.plusDays(1)));
+
+        List<PlayedGame> lastWeek = gameManager.getSpecificPlayedGamesBetween(CATAN, evening.minusDays(7), evening.plusDays(1));
+        assertEquals(2, lastWeek.size());
+        assertEquals(2, lastWeek.get(0).getTotalScore());
+        assertEquals(4, lastWeek.get(1).getTotalScore());
+        assertEquals(3, gameManager.getPlayedGamesBetween(evening.minusDays(7), evening.plusDays(1)).size());
+        assertTrue(gameManager.getSpecificPlayedGamesBetween(GO, evening.minusDays(7), evening).isEmpty());
+    }
+
+    @Test
+    public void latestPlayedGamesComeNewestFirst() {
+        LocalDateTime evening = LocalDateTime.of(2022, 11, 20, 18, 30);
+        for (int i = 0; i < 10; i++) {
+            gameManager.addPlayedGame(createGame(i % 2 == 0 ? CATAN : CHESS, i, evening.plusHours(i)));
+        }
+
+        List<PlayedGame> latestCatan = gameManager.getLatestSpecificPlayedGames(CATAN, 3);
+        assertEquals(Arrays.asList(8, 6, 4), scoresOf(latestCatan));
+        assertEquals(Arrays.asList(9, 8), scoresOf(gameManager.getLatestPlayedGames(2)));
+        assertEquals(10, gameManager.getLatestPlayedGames(100).size());
+    }
+
+    @Test
+    public void dateIndexFollowsLoadAndDelete() {
+        LocalDateTime evening = LocalDateTime.of(2022, 11, 20, 18, 30);
+        gameManager.addPlayedGame(createGame(CATAN, 1, evening));
+        gameManager.addPlayedGame(createGame(CHESS, 2, evening));
+
+        ArrayList<PlayedGame> loadedGames = new ArrayList<>();
+        loadedGames.add(createGame(CATAN, 7, evening.plusDays(1)));
+        gameManager.loadSpecificPlayedGames(CATAN, loadedGames);
+        assertEquals(Arrays.asList(7), scoresOf(gameManager.getLatestSpecificPlayedGames(CATAN, 5)));
+        assertEquals(Arrays.asList(7, 2), scoresOf(gameManager.getLatestPlayedGames(5)));
+
+        gameManager.deleteGameType(CATAN, null);
+        assertTrue(gameManager.getLatestSpecificPlayedGames(CATAN, 5).isEmpty());
+        assertEquals(Arrays.asList(2), scoresOf(gameManager.getLatestPlayedGames(5)));
+    }
+
+    private List<Integer> scoresOf(List<PlayedGame> playedGames) {
+        List<Integer> scores = new ArrayList<>();
+        for (PlayedGame playedGame : playedGames) {
+            scores.add(playedGame.getTotalScore());
+        }
+        return scores;
+    }
+
+    @Test
+    public void specificPlayedGamesAreReadOnly() {
+        gameManager.addPlayedGame(createGame(CATAN, 1));
+        List<PlayedGame> catanGames = gameManager.getSpecificPlayedGames(CATAN);
+
+        assertThrows(UnsupportedOperationException.class, () -> catanGames.add(createGame(CATAN, 2)));
+        assertThrows(UnsupportedOperationException.class, () -> gameManager.getSpecificPlayedGames(CHESS).add(createGame(CHESS, 2)));
+    }
+}
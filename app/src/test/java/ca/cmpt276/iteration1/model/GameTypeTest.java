@@ -81,25 +81,25 @@ public class GameTypeTest {
     public void getAchievementIndex(){
         GameType g = new GameType("My type", 100, 0);
         // tests lower and upper bound
-        Assert.assertEquals(0,g.getAchievementIndex(-1,1,"Easy"));
-        Assert.assertEquals(7,g.getAchievementIndex(76,1,"Easy"));
-        Assert.assertEquals(0,g.getAchievementIndex(-1,1,"Normal"));
-        Assert.assertEquals(7,g.getAchievementIndex(101,1,"Normal"));
-        Assert.assertEquals(0,g.getAchievementIndex(-1,1,"Hard"));
-        Assert.assertEquals(7,g.getAchievementIndex(126,1,"Hard"));
+        Assert.assertEquals(0,g.getAchievementIndex(-1,1,Difficulty.EASY));
+        Assert.assertEquals(7,g.getAchievementIndex(76,1,Difficulty.EASY));
+        Assert.assertEquals(0,g.getAchievementIndex(-1,1,Difficulty.NORMAL));
+        Assert.assertEquals(7,g.getAchievementIndex(101,1,Difficulty.NORMAL));
+        Assert.assertEquals(0,g.getAchievementIndex(-1,1,Difficulty.HARD));
+        Assert.assertEquals(7,g.getAchievementIndex(126,1,Difficulty.HARD));
 
         // tests for score equal to good and bad score
-        Assert.assertEquals(6,g.getAchievementIndex(75,1,"Easy"));
-        Assert.assertEquals(6,g.getAchievementIndex(100,1,"Normal"));
-        Assert.assertEquals(6,g.getAchievementIndex(125,1,"Hard"));
-        Assert.assertEquals(1,g.getAchievementIndex(0,1,"Easy"));
-        Assert.assertEquals(1,g.getAchievementIndex(0,1,"Normal"));
-        Assert.assertEquals(1,g.getAchievementIndex(0,1,"Hard"));
+        Assert.assertEquals(6,g.getAchievementIndex(75,1,Difficulty.EASY));
+        Assert.assertEquals(6,g.getAchievementIndex(100,1,Difficulty.NORMAL));
+        Assert.assertEquals(6,g.getAchievementIndex(125,1,Difficulty.HARD));
+        Assert.assertEquals(1,g.getAchievementIndex(0,1,Difficulty.EASY));
+        Assert.assertEquals(1,g.getAchievementIndex(0,1,Difficulty.NORMAL));
+        Assert.assertEquals(1,g.getAchievementIndex(0,1,Difficulty.HARD));
 
         // tests for multiple player scaling
-        Assert.assertEquals(6,g.getAchievementIndex(150,2,"Easy"));
-        Assert.assertEquals(6,g.getAchievementIndex(200,2,"Normal"));
-        Assert.assertEquals(6,g.getAchievementIndex(250,2,"Hard"));
+        Assert.assertEquals(6,g.getAchievementIndex(150,2,Difficulty.EASY));
+        Assert.assertEquals(6,g.getAchievementIndex(200,2,Difficulty.NORMAL));
+        Assert.assertEquals(6,g.getAchievementIndex(250,2,Difficulty.HARD));
 
     }
 
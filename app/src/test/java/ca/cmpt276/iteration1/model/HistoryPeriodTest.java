@@ -0,0 +1,36 @@
+package ca.cmpt276.iteration1.model;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Tests for the calendar periods the game history can be narrowed down to.
+ */
+public class HistoryPeriodTest {
+    // A Wednesday
+    private static final LocalDate DAY = LocalDate.of(2023, 1, 18);
+
+    @Test
+    public void weekRunsFromMonday() {
+        assertEquals(LocalDateTime.of(2023, 1, 16, 0, 0), HistoryPeriod.WEEK.getStart(DAY));
+        assertEquals(LocalDateTime.of(2023, 1, 23, 0, 0), HistoryPeriod.WEEK.getEnd(DAY));
+    }
+
+    @Test
+    public void monthRunsFromTheFirst() {
+        assertEquals(LocalDateTime.of(2023, 1, 1, 0, 0), HistoryPeriod.MONTH.getStart(DAY));
+        assertEquals(LocalDateTime.of(2023, 2, 1, 0, 0), HistoryPeriod.MONTH.getEnd(DAY));
+    }
+
+    @Test
+    public void seasonStartsInDecemberMarchJuneOrSeptember() {
+        assertEquals(LocalDateTime.of(2022, 12, 1, 0, 0), HistoryPeriod.SEASON.getStart(DAY));
+        assertEquals(LocalDateTime.of(2023, 3, 1, 0, 0), HistoryPeriod.SEASON.getEnd(DAY));
+        assertEquals(LocalDateTime.of(2023, 6, 1, 0, 0), HistoryPeriod.SEASON.getStart(LocalDate.of(2023, 6, 1)));
+        assertEquals(LocalDateTime.of(2023, 9, 1, 0, 0), HistoryPeriod.SEASON.getStart(LocalDate.of(2023, 11, 30)));
+    }
+}
@@ -0,0 +1,131 @@
+package ca.cmpt276.iteration1.model;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Random;
+
+/**
+ * Tests that the GameManager's columns hold the same games as its lists through adds, edits,
+ * loads and deletes, and count the same achievements.
+ */
+public class PlayedGameColumnsTest {
+    private static final int CATAN = 1;
+    private static final int CHESS = 2;
+    private static final int ACHIEVEMENT_COUNT = 8;
+
+    private GameManager gameManager;
+
+    @Before
+    public void resetGameManager() {
+        gameManager = GameManager.getInstance();
+        gameManager.loadGameTypeList(new ArrayList<>());
+        gameManager.loadGamePlayedList(new ArrayList<>());
+    }
+
+    private static PlayedGame createGame(int typeId, int[] playerScores, int achievementIndex) {
+        int totalScore = 0;
+        for (int score : playerScores) {
+            totalScore += score;
+        }
+        return new PlayedGame(typeId, playerScores.length, totalScore, achievementIndex, Difficulty.HARD,
+                playerScores, LocalDateTime.of(2022, 11, 20, 18, 30).plusDays(totalScore), "No", null);
+    }
+
+    private static void assertRowMatches(PlayedGame playedGame, PlayedGameColumns columns, int row) {
+        assertEquals(playedGame.getId(), columns.getId(row));
+        assertEquals(playedGame.getTypeId(), columns.getTypeId(row));
+        assertEquals(playedGame.getTotalScore(), columns.getTotalScore(row));
+        assertEquals(playedGame.getNumberOfPlayers(), columns.getNumberOfPlayers(row));
+        assertEquals(playedGame.getAchievementIndex(), columns.getAchievementIndex(row));
+        assertEquals(playedGame.getDifficulty(), columns.getDifficulty(row));
+        assertEquals(playedGame.getDatePlayed(), columns.getDatePlayed(row));
+
+        int[] playerScores = playedGame.getPlayerScores();
+        if (playerScores == null) {
+            assertEquals(PlayedGameColumns.NO_SCORES, columns.getPlayerScoreCount(row));
+            return;
+        }
+        int[] columnScores = new int[columns.getPlayerScoreCount(row)];
+        for (int player = 0; player < columnScores.length; player++) {
+            columnScores[player] = columns.getPlayerScore(row, player);
+        }
+        assertArrayEquals(playerScores, columnScores);
+    }
+
+    private void assertColumnsMatchGames() {
+        PlayedGameColumns columns = gameManager.getPlayedGameColumnsSnapshot();
+        ArrayList<PlayedGame> playedGames = gameManager.getPlayedGames();
+        assertEquals(playedGames.size(), columns.size());
+        for (int row = 0; row < columns.size(); row++) {
+            PlayedGame playedGame = gameManager.getPlayedGameFromId(columns.getId(row));
+            assertRowMatches(playedGame, columns, row);
+        }
+    }
+
+    @Test
+    public void columnsFollowAddsAndEdits() {
+        PlayedGame catanGame = createGame(CATAN, new int[]{3, 4}, 2);
+        gameManager.addPlayedGame(catanGame);
+        gameManager.addPlayedGame(createGame(CHESS, new int[]{1}, 5));
+        gameManager.addPlayedGame(new PlayedGame(CATAN, 2, 9, 7, Difficulty.NORMAL, null,
+                LocalDateTime.of(2022, 1, 1, 0, 0), "No", null));
+        assertColumnsMatchGames();
+        PlayedGameColumns beforeEdit = gameManager.getPlayedGameColumnsSnapshot();
+
+        // Same number of players, then more players, which moves the scores
+        catanGame.editPlayedGame(2, 20, 4, Difficulty.EASY, new int[]{10, 10}, "No", null);
+        assertColumnsMatchGames();
+        catanGame.editPlayedGame(3, 6, 1, Difficulty.NORMAL, new int[]{1, 2, 3}, "No", null);
+        assertColumnsMatchGames();
+        catanGame.editPlayedGame(0, 0, 0, Difficulty.NORMAL, null, "No", null);
+        assertColumnsMatchGames();
+
+        assertEquals(7, beforeEdit.getTotalScore(0));
+        assertEquals(2, beforeEdit.getAchievementIndex(0));
+    }
+
+    @Test
+    public void columnsFollowLoadsAndDeletes() {
+        GameType catan = new GameType("Catan", 100, 10, null);
+        gameManager.addGameType(catan);
+        for (int i = 0; i < 20; i++) {
+            gameManager.addPlayedGame(createGame(i % 2 == 0 ? catan.getId() : CHESS, new int[]{i, i + 1}, i % ACHIEVEMENT_COUNT));
+        }
+
+        ArrayList<PlayedGame> loadedChessGames = new ArrayList<>();
+        loadedChessGames.add(createGame(CHESS, new int[]{5, 5, 5}, 6));
+        gameManager.loadSpecificPlayedGames(CHESS, loadedChessGames);
+        assertColumnsMatchGames();
+
+        gameManager.deleteGameType(catan.getId(), null);
+        assertColumnsMatchGames();
+        assertEquals(1, gameManager.getPlayedGameColumnsSnapshot().size());
+
+        ArrayList<PlayedGame> loadedGames = new ArrayList<>();
+        loadedGames.add(createGame(CATAN, new int[]{8}, 0));
+        gameManager.loadGamePlayedList(loadedGames);
+        assertColumnsMatchGames();
+    }
+
+    @Test
+    public void achievementCountsMatchTheGames() {
+        Random random = new Random(7);
+        for (int i = 0; i < 1_000; i++) {
+            gameManager.addPlayedGame(createGame(1 + random.nextInt(3), new int[]{random.nextInt(50)}, random.nextInt(ACHIEVEMENT_COUNT)));
+        }
+
+        for (int typeId = 1; typeId <= 3; typeId++) {
+            int[] expected = new int[ACHIEVEMENT_COUNT];
+            for (PlayedGame playedGame : gameManager.getSpecificPlayedGames(typeId)) {
+                expected[playedGame.getAchievementIndex()]++;
+            }
+            assertArrayEquals(expected, gameManager.countSpecificAchievements(typeId, ACHIEVEMENT_COUNT));
+        }
+    }
+}
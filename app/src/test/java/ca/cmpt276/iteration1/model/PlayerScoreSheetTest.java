@@ -0,0 +1,110 @@
+package ca.cmpt276.iteration1.model;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Tests for the score sheet the score inputs type into, including a check with the JVM's per thread
+ * allocation counter that typing scores allocates nothing.
+ */
+public class PlayerScoreSheetTest {
+    private static final int KEYSTROKES = 200_000;
+
+    @Test
+    public void parsesWhatIntegerParseIntAccepts() {
+        String[] inputs = {"0", "7", "42", "-15", "+3", "007", "2147483647", "-2147483648"};
+        for (String input : inputs) {
+            assertEquals(input, Integer.parseInt(input), PlayerScoreSheet.parseScore(input));
+        }
+    }
+
+    @Test
+    public void halfTypedOrInvalidScoresAreUnfilled() {
+        String[] inputs = {"", "-", "+", "1a", "1.5", " 1", "2147483648", "-2147483649", "99999999999"};
+        for (String input : inputs) {
+            assertEquals(input, PlayerScoreSheet.INVALID_SCORE, PlayerScoreSheet.parseScore(input));
+        }
+    }
+
+    @Test
+    public void totalAndCompletenessOnlyCountCurrentPlayers() {
+        PlayerScoreSheet sheet = new PlayerScoreSheet(3);
+        assertFalse(sheet.isComplete());
+
+        sheet.setScore(0, "10");
+        sheet.setScore(1, "20");
+        sheet.setScore(2, "30");
+        assertTrue(sheet.isComplete());
+        assertEquals(60, sheet.getTotalScore());
+
+        sheet.setPlayerCount(2);
+        assertEquals(30, sheet.getTotalScore());
+        assertArrayEquals(new int[]{10, 20}, sheet.toArray());
+
+        // The third player comes back unfilled rather than with the old score
+        sheet.setPlayerCount(4);
+        assertFalse(sheet.isComplete());
+        assertEquals(PlayerScoreSheet.INVALID_SCORE, sheet.getScore(2));
+        assertEquals(PlayerScoreSheet.INVALID_SCORE, sheet.getScore(3));
+        assertEquals(10, sheet.getScore(0));
+    }
+
+    @Test
+    public void savedScoresAreCopiedIn() {
+        int[] savedScores = {5, 6};
+        PlayerScoreSheet sheet = new PlayerScoreSheet(3, savedScores);
+        sheet.setScore(0, 50);
+
+        assertArrayEquals(new int[]{5, 6}, savedScores);
+        assertArrayEquals(new int[]{50, 6, PlayerScoreSheet.INVALID_SCORE}, sheet.toArray());
+        assertArrayEquals(new int[]{PlayerScoreSheet.INVALID_SCORE, PlayerScoreSheet.INVALID_SCORE},
+                new PlayerScoreSheet(2, null).toArray());
+    }
+
+    private static int typeScores(PlayerScoreSheet sheet, StringBuilder input, int keystrokes) {
+        int checksum = 0;
+        for (int i = 0; i < keystrokes; i++) {
+            // Types up to four digits then clears the input, the way a player's score gets corrected
+            if (input.length() == 4) {
+                input.setLength(0);
+            }
+            else {
+                input.append((char) ('0' + i % 10));
+            }
+            int player = i % sheet.getPlayerCount();
+            sheet.setScore(player, input);
+            checksum += sheet.getTotalScore() + (sheet.isComplete() ? 1 : 0);
+        }
+        return checksum;
+    }
+
+    @Test
+    public void typingScoresDoesNotAllocate() {
+        java.lang.management.ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        assumeTrue(threadBean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean allocationCounter = (com.sun.management.ThreadMXBean) threadBean;
+        assumeTrue(allocationCounter.isThreadAllocatedMemorySupported());
+        allocationCounter.setThreadAllocatedMemoryEnabled(true);
+        long threadId = Thread.currentThread().getId();
+
+        PlayerScoreSheet sheet = new PlayerScoreSheet(4);
+        StringBuilder input = new StringBuilder(8);
+        // Warms up so class loading and compilation are not counted
+        typeScores(sheet, input, KEYSTROKES);
+
+        long before = allocationCounter.getThreadAllocatedBytes(threadId);
+        int checksum = typeScores(sheet, input, KEYSTROKES);
+        long allocated = allocationCounter.getThreadAllocatedBytes(threadId) - before;
+
+        // Even one boxed Integer per keystroke would be megabytes, the slack is for the counter itself
+        assertTrue("Typing " + KEYSTROKES + " keystrokes allocated " + allocated + " bytes (checksum " + checksum + ")",
+                allocated < 1024);
+    }
+}
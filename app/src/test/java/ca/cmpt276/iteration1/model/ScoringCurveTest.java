@@ -0,0 +1,81 @@
+package ca.cmpt276.iteration1.model;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+
+/**
+ * Tests for compiling each scoring curve into threshold tables, and for writing curves as text.
+ */
+public class ScoringCurveTest {
+    @Test
+    public void linearIsTheDefault() {
+        GameType gameType = new GameType("Catan", 100, 0, null);
+        assertEquals(ScoringCurve.LINEAR, gameType.getScoringCurve());
+        assertArrayEquals(new int[]{0, 20, 40, 60, 80, 100, 101}, gameType.getAchievementThresholds(1, Difficulty.NORMAL));
+    }
+
+    @Test
+    public void logarithmicStepsDouble() {
+        GameType gameType = new GameType("Exponential", 310, 0, null, ScoringCurve.LOGARITHMIC);
+        assertArrayEquals(new int[]{0, 10, 30, 70, 150, 310, 311}, gameType.getAchievementThresholds(1, Difficulty.NORMAL));
+        assertArrayEquals(new int[]{0, 20, 60, 140, 300, 620, 621}, gameType.getAchievementThresholds(2, Difficulty.NORMAL));
+        // 7.5 rounds up to 8 per player
+        assertEquals(8, gameType.getAchievementThresholds(1, Difficulty.EASY)[1]);
+        assertEquals(5, gameType.getAchievementIndex(200, 1, Difficulty.NORMAL));
+    }
+
+    @Test
+    public void breakpointsAreScaledByPlayersAndDifficulty() {
+        ScoringCurve curve = ScoringCurve.withBreakpoints(new int[]{-10, 0, 5, 6, 50, 99, 100});
+        GameType gameType = new GameType("Percentiles", 100, 0, null, curve);
+        assertArrayEquals(new int[]{-10, 0, 5, 6, 50, 99, 100}, gameType.getAchievementThresholds(1, Difficulty.NORMAL));
+        assertArrayEquals(new int[]{-30, 0, 15, 18, 150, 297, 300}, gameType.getAchievementThresholds(3, Difficulty.NORMAL));
+        assertArrayEquals(new int[]{-7, 0, 4, 5, 38, 75, 75}, gameType.getAchievementThresholds(1, Difficulty.EASY));
+        assertEquals(7, gameType.getAchievementIndex(100, 1, Difficulty.NORMAL));
+        assertEquals(6, gameType.getAchievementIndex(99, 1, Difficulty.NORMAL));
+        assertEquals(0, gameType.getAchievementIndex(-11, 1, Difficulty.NORMAL));
+
+        ArrayList<String> requirements = gameType.getAchievementLevelScoreRequirements(1, Difficulty.NORMAL);
+        assertEquals(GameType.getAchievementName(0, 0) + " <-10", requirements.get(0));
+        assertEquals(GameType.getAchievementName(7, 0) + " >99", requirements.get(7));
+    }
+
+    @Test
+    public void changingTheCurveDropsTheCachedTables() {
+        GameType gameType = new GameType("Catan", 310, 0, null);
+        assertEquals(2, gameType.getAchievementIndex(70, 1, Difficulty.NORMAL));
+        long versionBefore = GameManager.getInstance().getGameTypesVersion();
+
+        gameType.setScoringCurve(ScoringCurve.LOGARITHMIC);
+
+        assertEquals(4, gameType.getAchievementIndex(70, 1, Difficulty.NORMAL));
+        assertEquals(versionBefore + 1, GameManager.getInstance().getGameTypesVersion());
+    }
+
+    @Test
+    public void breakpointsMustBeCompleteAndAscending() {
+        assertThrows(IllegalArgumentException.class, () -> ScoringCurve.withBreakpoints(new int[]{1, 2, 3}));
+        assertThrows(IllegalArgumentException.class, () -> ScoringCurve.withBreakpoints(new int[]{0, 1, 2, 3, 2, 5, 6}));
+        assertThrows(IllegalArgumentException.class, () -> ScoringCurve.withBreakpoints(null));
+    }
+
+    @Test
+    public void curvesAreWrittenAndReadAsText() {
+        ScoringCurve breakpoints = ScoringCurve.withBreakpoints(new int[]{-3, 0, 10, 20, 30, 40, 50});
+        assertEquals("linear", ScoringCurve.LINEAR.toText());
+        assertEquals("breakpoints:-3,0,10,20,30,40,50", breakpoints.toText());
+        assertEquals(breakpoints, ScoringCurve.fromText(breakpoints.toText()));
+        assertEquals(ScoringCurve.LOGARITHMIC, ScoringCurve.fromText("logarithmic"));
+        assertEquals(ScoringCurve.LINEAR, ScoringCurve.fromText(null));
+
+        assertThrows(IllegalArgumentException.class, () -> ScoringCurve.fromText("cubic"));
+        assertThrows(IllegalArgumentException.class, () -> ScoringCurve.fromText("breakpoints"));
+        assertThrows(IllegalArgumentException.class, () -> ScoringCurve.fromText("breakpoints:1,x,3,4,5,6,7"));
+        assertThrows(IllegalArgumentException.class, () -> ScoringCurve.fromText("linear:1"));
+    }
+}
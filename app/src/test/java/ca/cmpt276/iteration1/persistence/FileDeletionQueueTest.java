@@ -0,0 +1,38 @@
+package ca.cmpt276.iteration1.persistence;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Collections;
+
+/**
+ * Tests that queued directories are measured and deleted with everything inside them.
+ */
+public class FileDeletionQueueTest {
+    private static void writeBytes(File file, int byteCount) throws IOException {
+        try (FileOutputStream output = new FileOutputStream(file)) {
+            output.write(new byte[byteCount]);
+        }
+    }
+
+    @Test
+    public void nestedDirectoriesAreMeasuredAndDeleted() throws IOException {
+        File directory = Files.createTempDirectory("photos").toFile();
+        File nested = new File(directory, "2022/11");
+        nested.mkdirs();
+        writeBytes(new File(directory, "top.jpg"), 10);
+        writeBytes(new File(nested, "deep.jpg"), 32);
+
+        assertEquals(42, FileDeletionQueue.sizeOf(directory));
+        assertEquals(42, FileDeletionQueue.delete(Collections.singletonList(directory)));
+        FileDeletionQueue.awaitDeletions();
+
+        assertFalse(directory.exists());
+    }
+}
@@ -0,0 +1,214 @@
+package ca.cmpt276.iteration1.persistence;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import ca.cmpt276.iteration1.model.Difficulty;
+import ca.cmpt276.iteration1.model.GameType;
+import ca.cmpt276.iteration1.model.GameTypeDeletion;
+import ca.cmpt276.iteration1.model.PlayedGame;
+import ca.cmpt276.iteration1.model.ScoringCurve;
+
+/**
+ * What every GameRepository has to do, run against each of them by a subclass: games saved through
+ * the listeners replace the saved game with the same id, come back per game type in the order they
+ * were added, and go with their game type, and ids are never handed out twice.
+ */
+public abstract class GameRepositoryContractTest {
+    private static final int CATAN = 4;
+    private static final int CHESS = 5;
+
+    /**
+     * @return A repository with nothing saved in it
+     */
+    protected abstract GameRepository getRepository();
+
+    /**
+     * Waits for the writes the listener methods queued, for repositories that write in the background.
+     */
+    protected void awaitWrites() throws IOException {
+        PersistenceWorker.getInstance().flush();
+    }
+
+    private static PlayedGame createGame(int typeId, int id, int totalScore) {
+        PlayedGame playedGame = new PlayedGame(typeId, 2, totalScore, 3, Difficulty.HARD, new int[]{totalScore - 1, 1},
+                LocalDateTime.of(2022, 11, 20, 18, 30).plusMinutes(id), "No", null);
+        playedGame.setId(id);
+        return playedGame;
+    }
+
+    private static void assertSameGame(PlayedGame expected, PlayedGame actual) {
+        assertEquals(expected.getId(), actual.getId());
+        assertEquals(expected.getTypeId(), actual.getTypeId());
+        assertEquals(expected.getNumberOfPlayers(), actual.getNumberOfPlayers());
+        assertEquals(expected.getTotalScore(), actual.getTotalScore());
+        assertEquals(expected.getAchievementIndex(), actual.getAchievementIndex());
+        assertEquals(expected.getDifficulty(), actual.getDifficulty());
+        assertArrayEquals(expected.getPlayerScores(), actual.getPlayerScores());
+        assertEquals(expected.getDatePlayed(), actual.getDatePlayed());
+        assertEquals(expected.getTakePhotoOptions(), actual.getTakePhotoOptions());
+        assertEquals(expected.getPicturePath(), actual.getPicturePath());
+    }
+
+    private static List<Integer> idsOf(List<PlayedGame> playedGames) {
+        List<Integer> ids = new ArrayList<>();
+        for (PlayedGame playedGame : playedGames) {
+            ids.add(playedGame.getId());
+        }
+        return ids;
+    }
+
+    @Test
+    public void gameTypesComeBackInTheirOrderWithIds() throws IOException {
+        GameRepository repository = getRepository();
+        assertFalse(repository.hasSavedGameTypes());
+
+        GameType chess = new GameType("Chess", 30, 5, null, ScoringCurve.LOGARITHMIC);
+        GameType catan = new GameType("Catan", 10, 2, "catan.png");
+        repository.saveGameTypes(Arrays.asList(chess, catan));
+
+        assertTrue(repository.hasSavedGameTypes());
+        assertTrue(chess.getId() > 0);
+        assertTrue(catan.getId() > 0);
+        assertNotEquals(chess.getId(), catan.getId());
+        ArrayList<GameType> gameTypes = repository.loadGameTypes();
+        assertEquals(2, gameTypes.size());
+        assertEquals("Chess", gameTypes.get(0).getGameType());
+        assertEquals(chess.getId(), gameTypes.get(0).getId());
+        assertEquals(ScoringCurve.LOGARITHMIC, gameTypes.get(0).getScoringCurve());
+        assertEquals("Catan", gameTypes.get(1).getGameType());
+        assertEquals("catan.png", gameTypes.get(1).getImagePath());
+
+        // An empty list is still a saved list
+        repository.saveGameTypes(new ArrayList<>());
+        assertTrue(repository.hasSavedGameTypes());
+        assertTrue(repository.loadGameTypes().isEmpty());
+    }
+
+    @Test
+    public void savingAGameAgainReplacesIt() throws IOException {
+        GameRepository repository = getRepository();
+        GameType catan = new GameType("Catan", 10, 2, null);
+        catan.setId(CATAN);
+        repository.saveGameTypes(Arrays.asList(catan));
+
+        // The listeners are given a copy of the game for each change
+        repository.onPlayedGameAdded(createGame(CATAN, 1, 40), new int[]{0, 0, 0, 1, 0, 0, 0, 0});
+        repository.onPlayedGameEdited(createGame(CATAN, 1, 80), new int[]{0, 0, 0, 0, 0, 0, 0, 1});
+        // Added again, for example by a save that was queued twice
+        repository.onPlayedGameAdded(createGame(CATAN, 1, 80), new int[]{0, 0, 0, 0, 0, 0, 0, 1});
+        // Edited before its add was written
+        repository.onPlayedGameEdited(createGame(CATAN, 2, 60), null);
+        awaitWrites();
+
+        assertTrue(repository.hasSavedPlayedGames());
+        ArrayList<PlayedGame> playedGames = repository.loadPlayedGames(CATAN, null);
+        assertEquals(2, playedGames.size());
+        assertSameGame(createGame(CATAN, 1, 80), playedGames.get(0));
+        assertSameGame(createGame(CATAN, 2, 60), playedGames.get(1));
+        // The counts are saved with the game that changed them
+        assertArrayEquals(new int[]{0, 0, 0, 0, 0, 0, 0, 1}, repository.loadGameTypes().get(0).getAchievementCounts());
+    }
+
+    @Test
+    public void gamesOfATypeLoadInTheOrderTheyWereAddedInPages() throws IOException {
+        GameRepository repository = getRepository();
+        List<Integer> catanIds = new ArrayList<>();
+        for (int id = 1; id <= 120; id++) {
+            int typeId = id % 3 == 0 ? CHESS : CATAN;
+            repository.onPlayedGameAdded(createGame(typeId, id, id + 1), null);
+            if (typeId == CATAN) {
+                catanIds.add(id);
+            }
+        }
+        awaitWrites();
+
+        List<PlayedGame> pagedGames = new ArrayList<>();
+        ArrayList<PlayedGame> playedGames = repository.loadPlayedGames(CATAN, pagedGames::addAll);
+
+        assertEquals(catanIds, idsOf(playedGames));
+        // The pages are the games read so far, in the same order
+        assertFalse(pagedGames.isEmpty());
+        assertEquals(catanIds.subList(0, pagedGames.size()), idsOf(pagedGames));
+        assertTrue(repository.loadPlayedGames(CATAN + CHESS, null).isEmpty());
+    }
+
+    @Test
+    public void deletingAGameTypeDeletesOnlyItsGames() throws IOException {
+        GameRepository repository = getRepository();
+        repository.onPlayedGameAdded(createGame(CATAN, 1, 10), null);
+        repository.onPlayedGameAdded(createGame(CHESS, 2, 20), null);
+        repository.onPlayedGameAdded(createGame(CATAN, 3, 30), null);
+        AtomicReference<GameTypeDeletion> deletion = new AtomicReference<>();
+
+        repository.onGameTypeDeleted(CATAN, null, deletion::set);
+        awaitWrites();
+
+        assertEquals(2, deletion.get().getPlayedGamesDeleted());
+        assertTrue(repository.loadPlayedGames(CATAN, null).isEmpty());
+        assertEquals(Arrays.asList(2), idsOf(repository.loadPlayedGames(CHESS, null)));
+        assertEquals(3, repository.getLastPlayedGameId());
+    }
+
+    @Test
+    public void importedGamesAreGivenIdsAndTheirTypes() throws IOException {
+        GameRepository repository = getRepository();
+        repository.onPlayedGameAdded(createGame(CATAN, 7, 10), null);
+        awaitWrites();
+        String json = "[{\"type\":\"Catan\",\"numberOfPlayers\":2,\"totalScore\":40,\"achievementIndex\":3,"
+                + "\"difficulty\":\"Easy\",\"playerScores\":[39,1],\"datePlayed\":\"2022-11-20T18:30\",\"takePhotoOptions\":\"No\"},"
+                + "{\"type\":\"Go\",\"numberOfPlayers\":1,\"totalScore\":5,\"achievementIndex\":0,"
+                + "\"difficulty\":\"Hard\",\"playerScores\":[5],\"datePlayed\":\"2022-11-21T18:30\",\"takePhotoOptions\":\"No\"}]";
+        Map<String, Integer> gameTypeIds = new HashMap<>();
+        gameTypeIds.put("Catan", CATAN);
+
+        repository.importPlayedGames(new StringReader(json), gameTypeIds);
+
+        ArrayList<PlayedGame> catanGames = repository.loadPlayedGames(CATAN, null);
+        assertEquals(Arrays.asList(7, 8), idsOf(catanGames));
+        assertEquals(Difficulty.EASY, catanGames.get(1).getDifficulty());
+        assertArrayEquals(new int[]{39, 1}, catanGames.get(1).getPlayerScores());
+        ArrayList<PlayedGame> orphanedGames = repository.loadPlayedGames(GameRepository.ORPHANED_GAME_TYPE_ID, null);
+        assertEquals(Arrays.asList(9), idsOf(orphanedGames));
+        assertEquals(9, repository.getLastPlayedGameId());
+    }
+
+    @Test
+    public void idsAreNotHandedOutAgainAfterADelete() throws IOException {
+        GameRepository repository = getRepository();
+        assertEquals(0, repository.getLastGameTypeId());
+        assertEquals(0, repository.getLastPlayedGameId());
+
+        GameType chess = new GameType("Chess", 30, 5, null);
+        GameType catan = new GameType("Catan", 10, 2, null);
+        repository.saveGameTypes(Arrays.asList(chess, catan));
+        int lastGameTypeId = repository.getLastGameTypeId();
+        assertEquals(Math.max(chess.getId(), catan.getId()), lastGameTypeId);
+
+        repository.saveGameTypes(Arrays.asList(chess));
+        assertEquals(lastGameTypeId, repository.getLastGameTypeId());
+        GameType go = new GameType("Go", 20, 1, null);
+        repository.saveGameTypes(Arrays.asList(chess, go));
+        assertTrue(go.getId() > lastGameTypeId);
+
+        repository.onPlayedGameAdded(createGame(CATAN, 12, 10), null);
+        repository.onGameTypeDeleted(CATAN, null, null);
+        awaitWrites();
+        assertEquals(12, repository.getLastPlayedGameId());
+    }
+}
@@ -0,0 +1,174 @@
+package ca.cmpt276.iteration1.persistence;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import ca.cmpt276.iteration1.interfaces.GameTypeDeletionListener;
+import ca.cmpt276.iteration1.interfaces.PlayedGamePageListener;
+import ca.cmpt276.iteration1.model.GameType;
+import ca.cmpt276.iteration1.model.GameTypeDeletion;
+import ca.cmpt276.iteration1.model.PlayedGame;
+
+/**
+ * Repository double that keeps everything in memory, grouped by game type the way the database
+ * index groups it, for tests that run on the JVM without SQLite. It keeps the same contract as
+ * the database (see GameRepositoryContractTest), writing straight away instead of on the worker.
+ */
+public class InMemoryGameRepository implements GameRepository {
+    private static final int PAGE_SIZE = 25;
+
+    private ArrayList<GameType> gameTypes;
+    private final Map<Integer, ArrayList<PlayedGame>> playedGamesByType = new LinkedHashMap<>();
+    private final SaveTracker gameTypeSaveTracker = new SaveTracker();
+    private boolean savedPlayedGames = false;
+    // Like AUTOINCREMENT, ids of deleted game types and games are not handed out again
+    private int lastGameTypeId = 0;
+    private int lastPlayedGameId = 0;
+
+    @Override
+    public boolean hasSavedGameTypes() {
+        return gameTypes != null;
+    }
+
+    @Override
+    public ArrayList<GameType> loadGameTypes() {
+        return gameTypes == null ? new ArrayList<>() : new ArrayList<>(gameTypes);
+    }
+
+    @Override
+    public void saveGameTypes(List<GameType> gameTypes) {
+        for (GameType gameType : gameTypes) {
+            if (gameType.getId() == 0) {
+                gameType.setId(lastGameTypeId + 1);
+            }
+            lastGameTypeId = Math.max(lastGameTypeId, gameType.getId());
+        }
+        this.gameTypes = new ArrayList<>(gameTypes);
+    }
+
+    @Override
+    public boolean saveGameTypesIfChanged(List<GameType> gameTypes, long version) {
+        if (hasSavedGameTypes() && !gameTypeSaveTracker.shouldSave(version)) {
+            return false;
+        }
+        saveGameTypes(gameTypes);
+        gameTypeSaveTracker.markSaved(version);
+        return true;
+    }
+
+    @Override
+    public boolean hasSavedPlayedGames() {
+        return savedPlayedGames;
+    }
+
+    @Override
+    public ArrayList<PlayedGame> loadPlayedGames(int gameTypeId, PlayedGamePageListener pageListener) {
+        ArrayList<PlayedGame> playedGames = playedGamesByType.get(gameTypeId);
+        if (playedGames == null) {
+            return new ArrayList<>();
+        }
+        if (pageListener != null) {
+            for (int end = PAGE_SIZE; end <= playedGames.size(); end += PAGE_SIZE) {
+                pageListener.onPageLoaded(new ArrayList<>(playedGames.subList(end - PAGE_SIZE, end)));
+            }
+        }
+        return new ArrayList<>(playedGames);
+    }
+
+    @Override
+    public void importPlayedGames(Reader jsonArray, Map<String, Integer> gameTypeIds) throws IOException {
+        try (LegacyPlayedGameReader reader = new LegacyPlayedGameReader(jsonArray, gameTypeIds)) {
+            PlayedGame playedGame;
+            while ((playedGame = reader.next()) != null) {
+                onPlayedGameAdded(playedGame, null);
+            }
+        }
+    }
+
+    @Override
+    public int getLastGameTypeId() {
+        return lastGameTypeId;
+    }
+
+    @Override
+    public int getLastPlayedGameId() {
+        return lastPlayedGameId;
+    }
+
+    @Override
+    public void onPlayedGameAdded(PlayedGame playedGame, int[] achievementCounts) {
+        savePlayedGame(playedGame);
+        saveAchievementCounts(playedGame.getTypeId(), achievementCounts);
+    }
+
+    @Override
+    public void onPlayedGameEdited(PlayedGame playedGame, int[] achievementCounts) {
+        savePlayedGame(playedGame);
+        saveAchievementCounts(playedGame.getTypeId(), achievementCounts);
+    }
+
+    // Like an insert that replaces the row with the same id, whether the game was added or edited
+    private void savePlayedGame(PlayedGame playedGame) {
+        if (playedGame.getId() == 0) {
+            playedGame.setId(lastPlayedGameId + 1);
+        }
+        lastPlayedGameId = Math.max(lastPlayedGameId, playedGame.getId());
+        savedPlayedGames = true;
+        if (replacePlayedGame(playedGame)) {
+            return;
+        }
+        ArrayList<PlayedGame> playedGames = playedGamesByType.get(playedGame.getTypeId());
+        if (playedGames == null) {
+            playedGames = new ArrayList<>();
+            playedGamesByType.put(playedGame.getTypeId(), playedGames);
+        }
+        playedGames.add(playedGame);
+    }
+
+    @Override
+    public void onPlayedGamesRescored(int gameTypeId, List<PlayedGame> playedGames, int[] achievementCounts) {
+        for (PlayedGame playedGame : playedGames) {
+            replacePlayedGame(playedGame);
+        }
+        saveAchievementCounts(gameTypeId, achievementCounts);
+    }
+
+    // Like the database, the counts are saved with the games that changed them
+    private void saveAchievementCounts(int gameTypeId, int[] achievementCounts) {
+        if (gameTypes == null || achievementCounts == null) {
+            return;
+        }
+        for (GameType gameType : gameTypes) {
+            if (gameType.getId() == gameTypeId) {
+                gameType.setAchievementCounts(achievementCounts);
+            }
+        }
+    }
+
+    // The listeners are given copies, which take the place of the saved game with the same id
+    private boolean replacePlayedGame(PlayedGame playedGame) {
+        ArrayList<PlayedGame> playedGames = playedGamesByType.get(playedGame.getTypeId());
+        if (playedGames == null) {
+            return false;
+        }
+        for (int i = 0; i < playedGames.size(); i++) {
+            if (playedGames.get(i).getId() == playedGame.getId()) {
+                playedGames.set(i, playedGame);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void onGameTypeDeleted(int gameTypeId, String imagePath, GameTypeDeletionListener deletionListener) {
+        ArrayList<PlayedGame> deletedGames = playedGamesByType.remove(gameTypeId);
+        if (deletionListener != null) {
+            deletionListener.onGameTypeDeletionFinished(new GameTypeDeletion(deletedGames == null ? 0 : deletedGames.size(), 0));
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package ca.cmpt276.iteration1.persistence;
+
+/**
+ * Checks that the in-memory double other tests rely on keeps the repository contract.
+ */
+public class InMemoryGameRepositoryTest extends GameRepositoryContractTest {
+    @Override
+    protected GameRepository getRepository() {
+        return new InMemoryGameRepository();
+    }
+
+    @Override
+    protected void awaitWrites() {
+        // Writes straight away
+    }
+}
@@ -0,0 +1,61 @@
+package ca.cmpt276.iteration1.persistence;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+import ca.cmpt276.iteration1.model.Difficulty;
+import ca.cmpt276.iteration1.model.PlayedGame;
+
+/**
+ * Tests reading the played games saved as JSON by older versions of the app.
+ */
+public class LegacyPlayedGameReaderTest {
+    private static String savedGame(String type, int totalScore) {
+        String typeField = type == null ? "" : "\"type\":\"" + type + "\",";
+        return "{" + typeField + "\"numberOfPlayers\":2,\"totalScore\":" + totalScore + ",\"achievementIndex\":3,"
+                + "\"difficulty\":\"Hard\",\"playerScores\":[" + (totalScore - 1) + ",1],"
+                + "\"datePlayed\":\"2022-11-20T18:30\",\"takePhotoOptions\":\"No\"}";
+    }
+
+    private static Map<String, Integer> gameTypeIds() {
+        Map<String, Integer> gameTypeIds = new HashMap<>();
+        gameTypeIds.put("Catan", 4);
+        return gameTypeIds;
+    }
+
+    @Test
+    public void gamesAreGivenTheIdOfTheirTypeName() throws IOException {
+        String json = "[" + savedGame("Catan", 40) + "]";
+        try (LegacyPlayedGameReader reader = new LegacyPlayedGameReader(new StringReader(json), gameTypeIds())) {
+            PlayedGame playedGame = reader.next();
+
+            assertEquals(4, playedGame.getTypeId());
+            assertEquals(40, playedGame.getTotalScore());
+            assertEquals(Difficulty.HARD, playedGame.getDifficulty());
+            assertArrayEquals(new int[]{39, 1}, playedGame.getPlayerScores());
+            assertEquals(LocalDateTime.of(2022, 11, 20, 18, 30), playedGame.getDatePlayed());
+            assertNull(reader.next());
+        }
+    }
+
+    @Test
+    public void gamesOfDeletedTypesAreKept() throws IOException {
+        String json = "[" + savedGame("Chess", 10) + "," + savedGame(null, 20) + "," + savedGame("Catan", 30) + "]";
+        InMemoryGameRepository repository = new InMemoryGameRepository();
+
+        repository.importPlayedGames(new StringReader(json), gameTypeIds());
+
+        assertEquals(3, repository.getLastPlayedGameId());
+        assertEquals(2, repository.loadPlayedGames(GameRepository.ORPHANED_GAME_TYPE_ID, null).size());
+        assertEquals(30, repository.loadPlayedGames(4, null).get(0).getTotalScore());
+    }
+}
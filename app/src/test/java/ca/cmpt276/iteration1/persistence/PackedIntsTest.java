@@ -0,0 +1,39 @@
+package ca.cmpt276.iteration1.persistence;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+/**
+ * Tests packing int arrays into the bytes saved in a BLOB column.
+ */
+public class PackedIntsTest {
+    @Test
+    public void valuesComeBackAsTheyWere() {
+        int[] values = {0, 1, -1, 250, Integer.MAX_VALUE, Integer.MIN_VALUE};
+        assertArrayEquals(values, PackedInts.unpack(PackedInts.pack(values)));
+        assertArrayEquals(new int[0], PackedInts.unpack(PackedInts.pack(new int[0])));
+        assertNull(PackedInts.pack(null));
+        assertNull(PackedInts.unpack(null));
+    }
+
+    @Test
+    public void eachValueIsFourLittleEndianBytes() {
+        assertArrayEquals(new byte[]{0x04, 0x03, 0x02, 0x01, (byte) 0xff, (byte) 0xff, (byte) 0xff, (byte) 0xff},
+                PackedInts.pack(new int[]{0x01020304, -1}));
+    }
+
+    @Test
+    public void partOfAValueIsRejected() {
+        try {
+            PackedInts.unpack(new byte[5]);
+            fail("Expected the 5 bytes to be rejected");
+        }
+        catch (IllegalArgumentException e) {
+            assertEquals("Packed ints of 5 bytes", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package ca.cmpt276.iteration1.persistence;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests for the background save queue.
+ */
+public class PersistenceWorkerTest {
+    // Long enough that nothing runs before the test flushes
+    private static final long COALESCE_DELAY_MS = 60_000;
+
+    @Test
+    public void burstOfSavesIsCoalescedIntoLatest() throws IOException {
+        PersistenceWorker worker = new PersistenceWorker(COALESCE_DELAY_MS);
+        List<Integer> savedValues = Collections.synchronizedList(new ArrayList<>());
+        for (int i = 0; i < 100; i++) {
+            final int value = i;
+            worker.submit("game types", () -> savedValues.add(value));
+        }
+        worker.flush();
+
+        assertEquals(Collections.singletonList(99), savedValues);
+        assertEquals(100, worker.getRequestsReceived());
+        assertEquals(1, worker.getSavesRun());
+    }
+
+    @Test
+    public void differentKeysAreAllSaved() throws IOException {
+        PersistenceWorker worker = new PersistenceWorker(COALESCE_DELAY_MS);
+        List<String> savedKeys = Collections.synchronizedList(new ArrayList<>());
+        worker.submit("game types", () -> savedKeys.add("game types"));
+        worker.submit("options", () -> savedKeys.add("options"));
+        worker.submit("game types", () -> savedKeys.add("game types"));
+        worker.flush();
+
+        assertEquals(2, savedKeys.size());
+        assertTrue(savedKeys.contains("options"));
+    }
+
+    @Test
+    public void savesRunInTheOrderOfTheirFirstRequest() throws IOException {
+        PersistenceWorker worker = new PersistenceWorker(COALESCE_DELAY_MS);
+        List<String> savedValues = Collections.synchronizedList(new ArrayList<>());
+        worker.submit("game 1", () -> savedValues.add("game 1 added"));
+        worker.submit("game 2", () -> savedValues.add("game 2 added"));
+        worker.submit("game 1", () -> savedValues.add("game 1 edited"));
+        worker.flush();
+
+        assertEquals(Arrays.asList("game 1 edited", "game 2 added"), savedValues);
+    }
+
+    @Test
+    public void saveRequestedBeforeADeleteStaysBeforeIt() throws IOException {
+        PersistenceWorker worker = new PersistenceWorker(COALESCE_DELAY_MS);
+        List<String> savedValues = Collections.synchronizedList(new ArrayList<>());
+        worker.submit("game 1", () -> savedValues.add("game 1 added"));
+        worker.submit(() -> savedValues.add("game type deleted"));
+        worker.submit("game 1", () -> savedValues.add("game 1 edited"));
+        worker.flush();
+
+        // Saving the game after the delete would write it back
+        assertEquals(Arrays.asList("game 1 edited", "game type deleted"), savedValues);
+    }
+
+    @Test
+    public void dueSavesRunWithoutAFlush() throws InterruptedException {
+        PersistenceWorker worker = new PersistenceWorker(1);
+        CountDownLatch saves = new CountDownLatch(3);
+        worker.submit("game 1", saves::countDown);
+        worker.submit(saves::countDown);
+        worker.submit("game 1", saves::countDown);
+        worker.submit("game 2", saves::countDown);
+
+        assertTrue(saves.await(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void loadRunsAfterPendingSaves() throws InterruptedException {
+        PersistenceWorker worker = new PersistenceWorker(COALESCE_DELAY_MS);
+        List<String> steps = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch loaded = new CountDownLatch(1);
+        worker.submit("game types", () -> steps.add("saved"));
+        worker.runAfterPendingSaves(() -> {
+            steps.add("loaded");
+            loaded.countDown();
+        });
+
+        assertTrue(loaded.await(10, TimeUnit.SECONDS));
+        assertEquals(Arrays.asList("saved", "loaded"), steps);
+    }
+
+    @Test
+    public void saveRunsOffCallingThread() throws IOException {
+        PersistenceWorker worker = new PersistenceWorker(0);
+        List<Thread> saveThreads = Collections.synchronizedList(new ArrayList<>());
+        worker.submit("options", () -> saveThreads.add(Thread.currentThread()));
+        worker.flush();
+
+        assertEquals(1, saveThreads.size());
+        assertTrue(saveThreads.get(0) != Thread.currentThread());
+    }
+
+    @Test
+    public void flushReportsFailedSave() throws IOException {
+        PersistenceWorker worker = new PersistenceWorker(COALESCE_DELAY_MS);
+        worker.submit("game types", () -> {
+            throw new IOException("Disk full");
+        });
+
+        assertThrows(IOException.class, worker::flush);
+        // The failure is only reported once
+        worker.flush();
+    }
+
+    @Test
+    public void boundedFlushReturnsWhileSaveIsStillRunning() throws Exception {
+        PersistenceWorker worker = new PersistenceWorker(COALESCE_DELAY_MS);
+        CountDownLatch slowSave = new CountDownLatch(1);
+        List<String> savedKeys = Collections.synchronizedList(new ArrayList<>());
+        worker.submit("game types", () -> {
+            try {
+                slowSave.await();
+            }
+            catch (InterruptedException e) {
+                throw new IOException(e);
+            }
+            savedKeys.add("game types");
+        });
+
+        assertFalse(worker.flush(10));
+
+        // The save is not given up, it finishes once it can
+        slowSave.countDown();
+        assertTrue(worker.flush(COALESCE_DELAY_MS));
+        assertEquals(Collections.singletonList("game types"), savedKeys);
+    }
+}
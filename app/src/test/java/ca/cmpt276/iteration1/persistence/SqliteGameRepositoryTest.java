@@ -0,0 +1,69 @@
+package ca.cmpt276.iteration1.persistence;
+
+import static org.junit.Assert.assertEquals;
+
+import android.content.Context;
+import android.database.sqlite.SQLiteDatabase;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import ca.cmpt276.iteration1.model.GameType;
+import ca.cmpt276.iteration1.model.ScoringCurve;
+
+/**
+ * Runs the repository contract against the SQLite database, on Robolectric's SQLite.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class SqliteGameRepositoryTest extends GameRepositoryContractTest {
+    private static final String DATABASE_NAME = "games.db";
+
+    private Context context;
+    private SqliteGameRepository repository;
+
+    @Before
+    public void openRepository() {
+        context = ApplicationProvider.getApplicationContext();
+        context.deleteDatabase(DATABASE_NAME);
+        repository = new SqliteGameRepository(context);
+    }
+
+    @After
+    public void closeRepository() throws IOException {
+        // Nothing queued by a test is left to write into the next test's database
+        PersistenceWorker.getInstance().flush();
+        repository.close();
+    }
+
+    @Override
+    protected GameRepository getRepository() {
+        return repository;
+    }
+
+    @Test
+    public void anUnreadableScoringCurveOnlyCostsItsOwnGameType() throws IOException {
+        GameType chess = new GameType("Chess", 30, 5, null, ScoringCurve.LOGARITHMIC);
+        GameType catan = new GameType("Catan", 10, 2, null, ScoringCurve.LOGARITHMIC);
+        repository.saveGameTypes(Arrays.asList(chess, catan));
+        repository.close();
+        SQLiteDatabase database = SQLiteDatabase.openDatabase(context.getDatabasePath(DATABASE_NAME).getPath(),
+                null, SQLiteDatabase.OPEN_READWRITE);
+        database.execSQL("UPDATE game_types SET scoring_curve = 'wavy' WHERE name = 'Chess'");
+        database.close();
+
+        ArrayList<GameType> gameTypes = repository.loadGameTypes();
+
+        assertEquals(2, gameTypes.size());
+        assertEquals(ScoringCurve.LINEAR, gameTypes.get(0).getScoringCurve());
+        assertEquals(ScoringCurve.LOGARITHMIC, gameTypes.get(1).getScoringCurve());
+    }
+}